@@ -28,6 +28,8 @@ import org.openjdk.jmh.runner.*;
 import org.openjdk.jmh.runner.options.*;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -47,6 +49,15 @@ public final class DimensionedJmh {
         System.exit(1);
     }
 
+    /** Distinct from the exit code of {@link #fatal}, to tell regressions from setup errors */
+    private static final int REGRESSION_EXIT_CODE = 2;
+
+    private static final String RESULTS_ARG = "--results=";
+    private static final String BASELINE_ARG = "--baseline=";
+    private static final String THRESHOLD_ARG = "--threshold=";
+
+    private static final String THREADS_DIM = "threads";
+
     private static String regexp(Class<?> containerClass) {
         return containerClass.getCanonicalName() + ".*";
     }
@@ -108,6 +119,11 @@ public final class DimensionedJmh {
     private ToLongFunction<Map<String, String>> getOperationsPerInvocation = null;
     private boolean dynamicOperationsPerIteration = false;
     private boolean headerPrinted = false;
+    private DimensionedResults results;
+    private Path resultsFile = null;
+    private DimensionedResults baseline = null;
+    private double regressionThreshold = 0.05;
+    private boolean threadsDim = false;
 
     public DimensionedJmh(Class<?> benchmarksContainerClass) {
         analyzeTable(makeDimTable(getBenchmarks(regexp = regexp(benchmarksContainerClass))));
@@ -178,6 +194,16 @@ public final class DimensionedJmh {
         return this;
     }
 
+    /**
+     * Adds "threads" arg dimension, options of which are passed to JMH as the number of benchmark
+     * threads, overriding {@code @Threads}, and to the benchmark JVM as "threads" system property,
+     * as options of other arg dimensions.
+     */
+    public DimensionedJmh addThreadsDim(Object... options) {
+        threadsDim = true;
+        return addArgDim(THREADS_DIM, options);
+    }
+
     public void run(String[] args) throws RunnerException, CommandLineOptionException {
         Map<String, Collection<String>> filteredBenchOptions =
                 dimMapsFactory.newUpdatableMap(benchDimOptions);
@@ -187,6 +213,10 @@ public final class DimensionedJmh {
         Iterator<String> argsIt = filteredArgs.iterator();
         while (argsIt.hasNext()) {
             String arg = argsIt.next();
+            if (parseResultsArg(arg)) {
+                argsIt.remove();
+                continue;
+            }
             String[] parts = arg.split("=");
             if (parts.length == 2) {
                 String dimName = parts[0];
@@ -202,10 +232,12 @@ public final class DimensionedJmh {
             }
         }
         headerPrinted = false;
+        results = new DimensionedResults();
 
         if (filteredArgOptions.isEmpty()) {
             runArgOptionCombination(Collections.<String, String>emptyMap(), filteredArgs,
                     filteredBenchOptions);
+            finishResults();
             return;
         }
         int argOptionCombinations = filteredArgOptions.values().stream()
@@ -225,6 +257,41 @@ public final class DimensionedJmh {
             }
             runArgOptionCombination(combination, filteredArgs, filteredBenchOptions);
         }
+        finishResults();
+    }
+
+    private boolean parseResultsArg(String arg) {
+        try {
+            if (arg.startsWith(RESULTS_ARG)) {
+                resultsFile = Paths.get(arg.substring(RESULTS_ARG.length()));
+            } else if (arg.startsWith(BASELINE_ARG)) {
+                // read the baseline before running benchmarks, to fail fast
+                baseline = DimensionedResults.readCsv(
+                        Paths.get(arg.substring(BASELINE_ARG.length())));
+            } else if (arg.startsWith(THRESHOLD_ARG)) {
+                regressionThreshold =
+                        Double.parseDouble(arg.substring(THRESHOLD_ARG.length())) / 100.0;
+            } else {
+                return false;
+            }
+        } catch (IOException | NumberFormatException e) {
+            fatal("Wrong argument " + arg + ": " + e);
+        }
+        return true;
+    }
+
+    private void finishResults() {
+        if (results.isEmpty())
+            return;
+        if (resultsFile != null) {
+            try {
+                results.export(resultsFile);
+            } catch (IOException e) {
+                fatal("Could not write results to " + resultsFile + ": " + e);
+            }
+        }
+        if (baseline != null && results.compareWith(baseline, regressionThreshold) > 0)
+            System.exit(REGRESSION_EXIT_CODE);
     }
 
     private <T extends Collection<String>> boolean filterDim(Map<String, T> filteredOptions,
@@ -250,11 +317,12 @@ public final class DimensionedJmh {
         // Patterns passed via "command line" args, because otherwise JMH hide them with '.*'
         List<String> extraArgs = new ArrayList<>(args);
         extraArgs.add(filterRegexp(benchOptions));
-        Options jmhOptions = new OptionsBuilder()
+        ChainedOptionsBuilder jmhOptions = new OptionsBuilder()
                 .parent(new CommandLineOptions(extraArgs.stream().toArray(String[]::new)))
-                .jvmArgs(jvmArgs(combination))
-                .build();
-        Collection<RunResult> results = new Runner(jmhOptions).run();
+                .jvmArgs(jvmArgs(combination));
+        if (threadsDim)
+            jmhOptions.threads(Integer.parseInt(combination.get(THREADS_DIM)));
+        Collection<RunResult> results = new Runner(jmhOptions.build()).run();
         results.forEach(result -> formatBenchResult(combination, result));
     }
 
@@ -283,6 +351,9 @@ public final class DimensionedJmh {
     private void formatBenchResult(Map<String, String> combination, RunResult result) {
         argDimNames.stream().map(dim -> align(dim, combination.get(dim)))
                 .forEach(System.out::print);
+        // keys are in the order of columns in the printed table
+        Map<String, String> recordDims = new LinkedHashMap<>();
+        argDimNames.forEach(dim -> recordDims.put(lower(dim), combination.get(dim)));
         Map<String, String> benchOptions = dimMapsFactory.newUpdatableMap();
         List<String> dims = dimParts(methodName(result.getParams().getBenchmark()));
         Iterator<String> dimNamesIt = benchDimNames.iterator();
@@ -292,6 +363,7 @@ public final class DimensionedJmh {
                 continue;
             String option = dim.substring(0, dim.length() - dimName.length());
             benchOptions.put(dimName, option);
+            recordDims.put(lower(dimName), option);
             System.out.print(align(dimName, option));
         }
         Result res = getResult(result);
@@ -300,6 +372,7 @@ public final class DimensionedJmh {
         double err = res.getScoreError() / (double) operations;
         // Locale.US for dot instead of comma as separator
         System.out.printf(Locale.US, ": %6.2f %6.2f\n", mean, err);
+        results.add(new DimensionedResults.Record(recordDims, mean, err, res.getScoreUnit()));
     }
 
     private Result getResult(RunResult result) {
@@ -338,6 +411,11 @@ public final class DimensionedJmh {
         benchDimNames.stream().filter(DimensionedJmh::isDimension)
                 .map(dim -> lower(dim) + "=" + joinOptions(benchDimOptions.get(dim)))
                 .forEach(System.err::println);
+        System.err.println(RESULTS_ARG + "<file.csv|file.json>: export results, keyed by dims");
+        System.err.println(BASELINE_ARG + "<file.csv>: compare with results exported before, " +
+                "exit with code " + REGRESSION_EXIT_CODE + " on regression");
+        System.err.println(THRESHOLD_ARG + "<percent>: min mean time increase, or throughput " +
+                "decrease, to report a regression, 5 by default");
         System.err.println("+ Any JMH options, except including patterns:");
         try {
             new CommandLineOptions().showHelp();
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+
+
+/**
+ * Results of a {@link DimensionedJmh} run, keyed by the options of dimensions, exported to CSV or
+ * JSON files and compared with a baseline, exported by a previous run.
+ */
+final class DimensionedResults {
+
+    static final class Record {
+        /** dim name -> option, in the order of dims in the results table */
+        final Map<String, String> dims;
+        final double mean;
+        final double err;
+        final String unit;
+
+        Record(Map<String, String> dims, double mean, double err, String unit) {
+            this.dims = dims;
+            this.mean = mean;
+            this.err = err;
+            this.unit = unit;
+        }
+
+        String key() {
+            return dims.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue())
+                    .collect(Collectors.joining(" "));
+        }
+
+        /**
+         * Returns {@code true} if the score is a throughput, e. g. "ops/ms" in JMH Throughput
+         * mode, {@code false} if it is a time per operation, e. g. "ns/op" in AverageTime,
+         * SampleTime and SingleShotTime modes. The mode is told by the unit, because only units
+         * are saved in exported results.
+         */
+        boolean higherIsBetter() {
+            return unit.startsWith("ops/");
+        }
+    }
+
+    private static final List<String> VALUE_COLUMNS = asList("mean", "err", "unit");
+
+    private final List<Record> records = new ArrayList<>();
+
+    void add(Record record) {
+        records.add(record);
+    }
+
+    boolean isEmpty() {
+        return records.isEmpty();
+    }
+
+    /**
+     * Writes the results in JSON format, if the file name ends with ".json", CSV otherwise.
+     */
+    void export(Path file) throws IOException {
+        String content = file.toString().endsWith(".json") ? toJson() : toCsv();
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String toCsv() {
+        StringBuilder sb = new StringBuilder();
+        List<String> header = new ArrayList<>(records.get(0).dims.keySet());
+        header.addAll(VALUE_COLUMNS);
+        sb.append(String.join(",", header)).append('\n');
+        for (Record r : records) {
+            for (String option : r.dims.values()) {
+                sb.append(option).append(',');
+            }
+            sb.append(r.mean).append(',').append(r.err).append(',').append(r.unit).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private String toJson() {
+        return records.stream().map(r -> {
+            String dims = r.dims.entrySet().stream()
+                    .map(e -> jsonString(e.getKey()) + ": " + jsonString(e.getValue()))
+                    .collect(Collectors.joining(", ", "{", "}"));
+            return "  {\"dims\": " + dims + ", \"mean\": " + r.mean + ", \"err\": " + r.err +
+                    ", \"unit\": " + jsonString(r.unit) + "}";
+        }).collect(Collectors.joining(",\n", "[\n", "\n]\n"));
+    }
+
+    private static String jsonString(String s) {
+        return '"' + s.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    /**
+     * Reads results, exported in CSV format by {@link #export}.
+     */
+    static DimensionedResults readCsv(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        DimensionedResults results = new DimensionedResults();
+        if (lines.isEmpty())
+            return results;
+        List<String> header = asList(lines.get(0).split(","));
+        int dimCount = header.size() - VALUE_COLUMNS.size();
+        if (dimCount < 0 || !header.subList(dimCount, header.size()).equals(VALUE_COLUMNS))
+            throw new IOException(file + " is not a CSV file with DimensionedJmh results");
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isEmpty())
+                continue;
+            String[] values = line.split(",", -1);
+            if (values.length != header.size())
+                throw new IOException("Malformed line in " + file + ": " + line);
+            Map<String, String> dims = new LinkedHashMap<>();
+            for (int i = 0; i < dimCount; i++) {
+                dims.put(header.get(i), values[i]);
+            }
+            results.add(new Record(dims, Double.parseDouble(values[dimCount]),
+                    Double.parseDouble(values[dimCount + 1]), values[dimCount + 2]));
+        }
+        return results;
+    }
+
+    /**
+     * Compares the results with the baseline, prints significant changes to {@code System.err}
+     * and returns the number of regressions. A dimension combination is regressed, if the
+     * confidence intervals of the mean score (reported as errors by JMH) of the baseline and
+     * the current results don't overlap, and the score worsened by more than
+     * the {@code threshold} (a fraction, e. g. 0.05 for 5%): the mean time per operation
+     * increased, or the mean throughput decreased, see {@link Record#higherIsBetter()}.
+     */
+    int compareWith(DimensionedResults baseline, double threshold) {
+        Map<String, Record> baselineRecords = new HashMap<>();
+        baseline.records.forEach(r -> baselineRecords.put(r.key(), r));
+        int regressions = 0;
+        for (Record current : records) {
+            Record base = baselineRecords.get(current.key());
+            if (base == null) {
+                System.err.println("Not in baseline: " + current.key());
+                continue;
+            }
+            if (!base.unit.equals(current.unit)) {
+                System.err.println("Units differ from baseline, not compared: " + current.key());
+                continue;
+            }
+            boolean overlap = current.mean - current.err <= base.mean + base.err &&
+                    current.mean + current.err >= base.mean - base.err;
+            double change = (current.mean - base.mean) / base.mean;
+            double worsening = current.higherIsBetter() ? -change : change;
+            if (!overlap && worsening > threshold) {
+                regressions++;
+                System.err.println(formatChange("REGRESSION", current, base, change));
+            } else if (!overlap && -worsening > threshold) {
+                System.err.println(formatChange("improvement", current, base, change));
+            }
+        }
+        System.err.printf(Locale.US, "%d regression(s) against baseline, threshold %.1f%%\n",
+                regressions, threshold * 100);
+        return regressions;
+    }
+
+    private static String formatChange(String kind, Record current, Record base, double change) {
+        // Locale.US for dot instead of comma as separator
+        return String.format(Locale.US, "%s %s: %.2f +- %.2f -> %.2f +- %.2f %s (%+.1f%%)",
+                kind, current.key(), base.mean, base.err, current.mean, current.err,
+                current.unit, change * 100);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.bench;
+
+import com.koloboke.collect.impl.hash.*;
+import com.koloboke.collect.map.hash.HashIntIntMap;
+import com.koloboke.collect.map.hash.HashIntIntMapFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static java.util.concurrent.TimeUnit.*;
+
+
+/**
+ * Soak test of put/remove churn on a mutable {@code HashIntIntMap} of the fixed size: each step
+ * removes a random key from the map and puts a new random key, so the table is constantly
+ * filled with removed slots and purged. Unlike {@code AddRemoveWithTombstonesBenchmarks},
+ * which reports average times, latency of each operation is recorded to a {@link
+ * LatencyHistogram}, because the cost of purges is paid by single unlucky puts and is visible
+ * only in the tail percentiles. Rehashes are counted by cause via {@link HashInstrumentation}.
+ * <pre>
+ * [hashes=lHash,qHash] [size=N] [minutes=N] [reportMinutes=N] [seed=N]</pre>
+ *
+ * <p>Each table type is soaked for the given number of minutes in turn, cumulative results are
+ * printed every {@code reportMinutes} and a summary table at the end, latencies in nanoseconds.
+ */
+public final class ChurnSoak {
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9, 99.99};
+    private static final int CLOCK_CHECK_INTERVAL = 1 << 16;
+
+    private static HashIntIntMapFactory factory(String hash) {
+        switch (hash) {
+            case "lHash": return new LHashParallelKVIntIntMapFactoryImpl();
+            case "qHash": return new QHashParallelKVIntIntMapFactoryImpl();
+            default: throw new IllegalArgumentException("Unknown hash: " + hash);
+        }
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> params = new HashMap<>();
+        for (String arg : args) {
+            String[] parts = arg.split("=");
+            if (parts.length != 2)
+                throw new IllegalArgumentException("Expected param=value, given " + arg);
+            params.put(parts[0], parts[1]);
+        }
+        String[] hashes = params.getOrDefault("hashes", "lHash,qHash").split(",");
+        int size = Integer.parseInt(params.getOrDefault("size", "1000000"));
+        long durationNanos =
+                MINUTES.toNanos(Long.parseLong(params.getOrDefault("minutes", "60")));
+        long reportNanos =
+                MINUTES.toNanos(Long.parseLong(params.getOrDefault("reportMinutes", "5")));
+        long seed = Long.parseLong(params.getOrDefault("seed", "0"));
+
+        ChurnSoak[] soaks = new ChurnSoak[hashes.length];
+        for (int i = 0; i < hashes.length; i++) {
+            soaks[i] = new ChurnSoak(hashes[i], factory(hashes[i]), size, new Random(seed));
+            soaks[i].run(durationNanos, reportNanos);
+        }
+        System.out.println();
+        System.out.println(header());
+        for (ChurnSoak soak : soaks) {
+            System.out.println(soak.row("put", soak.putLatencies));
+            System.out.println(soak.row("remove", soak.removeLatencies));
+        }
+    }
+
+    private final String hash;
+    private final HashIntIntMap map;
+    private final int[] keys;
+    private final Random random;
+    private final LatencyHistogram putLatencies = new LatencyHistogram();
+    private final LatencyHistogram removeLatencies = new LatencyHistogram();
+    private final long[] rehashes = new long[RehashListener.Cause.values().length];
+    private final long[] rehashNanos = new long[rehashes.length];
+    private final long[] maxRehashNanos = new long[rehashes.length];
+
+    private ChurnSoak(String hash, HashIntIntMapFactory factory, int size, Random random) {
+        this.hash = hash;
+        this.random = random;
+        map = factory.newMutableMap(size);
+        keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = newKey();
+            map.put(keys[i], i);
+        }
+    }
+
+    private int newKey() {
+        int key;
+        do {
+            key = random.nextInt();
+        } while (map.containsKey(key));
+        return key;
+    }
+
+    private void run(long durationNanos, long reportNanos) {
+        HashInstrumentation.setRehashListener(
+                (h, cause, oldCapacity, newCapacity, removedSlots, nanos) -> {
+                    if (h != map)
+                        return;
+                    int c = cause.ordinal();
+                    rehashes[c]++;
+                    rehashNanos[c] += nanos;
+                    maxRehashNanos[c] = Math.max(maxRehashNanos[c], nanos);
+                });
+        try {
+            System.out.println(header());
+            long start = System.nanoTime();
+            long nextReport = start + reportNanos;
+            long end = start + durationNanos;
+            long dummy = 0L;
+            while (true) {
+                for (int i = 0; i < CLOCK_CHECK_INTERVAL; i++) {
+                    int index = random.nextInt(keys.length);
+                    int newKey = newKey();
+                    long t0 = System.nanoTime();
+                    dummy ^= map.remove(keys[index]);
+                    long t1 = System.nanoTime();
+                    dummy ^= map.put(newKey, i);
+                    long t2 = System.nanoTime();
+                    keys[index] = newKey;
+                    removeLatencies.record(t1 - t0);
+                    putLatencies.record(t2 - t1);
+                }
+                long now = System.nanoTime();
+                if (now - end >= 0)
+                    break;
+                if (now - nextReport >= 0) {
+                    System.out.println(row("put", putLatencies));
+                    System.out.println(row("remove", removeLatencies));
+                    nextReport += reportNanos;
+                }
+            }
+            if (dummy == 42)
+                System.out.println();
+        } finally {
+            HashInstrumentation.setRehashListener(null);
+        }
+    }
+
+    private static String header() {
+        StringBuilder sb = new StringBuilder("hash,op,ops");
+        for (double p : PERCENTILES) {
+            sb.append(",p").append(p);
+        }
+        sb.append(",max");
+        for (RehashListener.Cause cause : RehashListener.Cause.values()) {
+            String c = cause.name().toLowerCase();
+            sb.append(',').append(c).append("s,").append(c)
+                    .append("MillisTotal,").append(c).append("MillisMax");
+        }
+        return sb.toString();
+    }
+
+    private String row(String op, LatencyHistogram latencies) {
+        StringBuilder sb = new StringBuilder(hash).append(',').append(op)
+                .append(',').append(latencies.totalCount());
+        for (double p : PERCENTILES) {
+            sb.append(',').append(latencies.percentile(p));
+        }
+        sb.append(',').append(latencies.max());
+        for (int c = 0; c < rehashes.length; c++) {
+            sb.append(',').append(rehashes[c])
+                    .append(',').append(NANOSECONDS.toMillis(rehashNanos[c]))
+                    .append(',').append(NANOSECONDS.toMillis(maxRehashNanos[c]));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.bench;
+
+
+/**
+ * Histogram of non-negative latencies with fixed relative precision, like HdrHistogram: values
+ * below {@code 2 * SUB_BUCKETS} are recorded exactly, larger values are recorded in buckets,
+ * the width of which is less than 1% of the bucket values. Recording doesn't allocate and is
+ * not thread-safe.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static int index(long value) {
+        if (value < 2 * SUB_BUCKETS)
+            return (int) value;
+        int shift = 64 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS + 1);
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /** The greatest value, recorded in the bucket with the given index */
+    private static long highestValue(int index) {
+        if (index < 2 * SUB_BUCKETS)
+            return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long lowestValue = ((long) (index % SUB_BUCKETS) + SUB_BUCKETS) << shift;
+        return lowestValue + (1L << shift) - 1;
+    }
+
+    private final long[] counts = new long[index(Long.MAX_VALUE) + 1];
+    private long totalCount = 0L;
+    private long max = 0L;
+
+    void record(long value) {
+        if (value < 0)
+            throw new IllegalArgumentException("Negative value: " + value);
+        counts[index(value)]++;
+        totalCount++;
+        if (value > max)
+            max = value;
+    }
+
+    long totalCount() {
+        return totalCount;
+    }
+
+    long max() {
+        return max;
+    }
+
+    /**
+     * Returns the value, that the given percent of recorded values are less than or equal to,
+     * within the histogram precision.
+     */
+    long percentile(double percent) {
+        if (totalCount == 0)
+            return 0L;
+        long countAtPercentile = Math.max((long) Math.ceil(percent / 100.0 * totalCount), 1L);
+        long count = 0L;
+        for (int i = 0; i < counts.length; i++) {
+            count += counts[i];
+            if (count >= countAtPercentile)
+                return Math.min(highestValue(i), max);
+        }
+        return max;
+    }
+}
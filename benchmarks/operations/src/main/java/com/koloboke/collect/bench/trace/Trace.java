@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.bench.trace;
+
+import com.koloboke.collect.map.IntObjMap;
+import com.koloboke.collect.map.hash.HashIntObjMaps;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+
+/**
+ * A sequence of map operations, loaded into memory to be replayed by {@code TraceReplay}.
+ *
+ * <p>The trace file format is the {@link #MAGIC} and {@link #VERSION} ints, followed by
+ * records of the op code byte, the int key and the long value (ignored by {@link #GET} and
+ * {@link #REMOVE}), in {@link java.io.DataOutput} format. Traces are written by {@link
+ * TraceWriter}, either by {@link TraceGenerator}, or by a wrapper of the map in the application,
+ * recording the production access pattern.
+ */
+public final class Trace {
+    public static final byte GET = 0, PUT = 1, ADD_VALUE = 2, REMOVE = 3;
+
+    /** "KBTR" */
+    static final int MAGIC = 0x4b425452;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int RECORD_BYTES = 1 + 4 + 8;
+
+    public static long length(Path file) throws IOException {
+        return (Files.size(file) - HEADER_BYTES) / RECORD_BYTES;
+    }
+
+    public static Trace read(Path file) throws IOException {
+        long length = length(file);
+        if (length > Integer.MAX_VALUE)
+            throw new IOException(file + " is too long to load: " + length + " records");
+        Trace trace = new Trace((int) length);
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new IOException(file + " is not a trace of version " + VERSION);
+            for (int i = 0; i < length; i++) {
+                byte op = in.readByte();
+                if (op < GET || op > REMOVE)
+                    throw new IOException("Unknown op code " + op + " in record " + i);
+                trace.ops[i] = op;
+                trace.keys[i] = in.readInt();
+                trace.values[i] = in.readLong();
+            }
+        }
+        return trace;
+    }
+
+    public final byte[] ops;
+    public final int[] keys;
+    public final long[] values;
+    private String[] objKeys;
+
+    private Trace(int length) {
+        ops = new byte[length];
+        keys = new int[length];
+        values = new long[length];
+    }
+
+    public int length() {
+        return ops.length;
+    }
+
+    /**
+     * Returns string keys for replay with object-keyed maps: a single {@code String} instance for
+     * all records with the same int key, so that the cost of {@code hashCode()} computation,
+     * cached by strings, is not a part of the replay.
+     */
+    public synchronized String[] objKeys() {
+        if (objKeys == null) {
+            IntObjMap<String> strings = HashIntObjMaps.newUpdatableMap();
+            objKeys = new String[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                objKeys[i] = strings.computeIfAbsent(keys[i], k -> "key" + k);
+                objKeys[i].hashCode();
+            }
+        }
+        return objKeys;
+    }
+}
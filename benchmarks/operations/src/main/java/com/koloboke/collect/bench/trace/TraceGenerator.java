@@ -0,0 +1,130 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.bench.trace;
+
+import com.koloboke.collect.set.IntSet;
+import com.koloboke.collect.set.hash.HashIntSets;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static com.koloboke.collect.bench.trace.Trace.*;
+
+
+/**
+ * Generates synthetic {@link Trace}s:
+ * <pre>
+ * zipf file [ops=N] [keys=N] [exponent=S] [gets=P] [puts=P] [addValues=P] [seed=N]
+ * slidingWindow file [ops=N] [window=N] [burst=N] [gets=P] [seed=N]</pre>
+ *
+ * <p>{@code zipf}: keys, distributed by Zipf's law with the given exponent over the given number
+ * of distinct keys, each operation is get, put, addValue or remove (the rest of probability).
+ *
+ * <p>{@code slidingWindow}: keys are ascending ids, live in the map while they are in the window
+ * of the most recent keys. Each operation is a get of a uniformly chosen live key with the given
+ * probability, or a put of a new key. When the window is exceeded by {@code burst} keys, they
+ * are removed at once.
+ */
+public final class TraceGenerator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: zipf|slidingWindow file [param=value]...");
+            System.exit(1);
+        }
+        Map<String, String> params = new HashMap<>();
+        for (String arg : Arrays.asList(args).subList(2, args.length)) {
+            String[] parts = arg.split("=");
+            if (parts.length != 2)
+                throw new IllegalArgumentException("Expected param=value, given " + arg);
+            params.put(parts[0], parts[1]);
+        }
+        long ops = Long.parseLong(params.getOrDefault("ops", "10000000"));
+        double gets = Double.parseDouble(params.getOrDefault("gets", "0.8"));
+        Random r = new Random(Long.parseLong(params.getOrDefault("seed", "0")));
+        try (TraceWriter out = new TraceWriter(Paths.get(args[1]))) {
+            switch (args[0]) {
+                case "zipf":
+                    zipf(out, r, ops, Integer.parseInt(params.getOrDefault("keys", "1000000")),
+                            Double.parseDouble(params.getOrDefault("exponent", "1.0")), gets,
+                            Double.parseDouble(params.getOrDefault("puts", "0.1")),
+                            Double.parseDouble(params.getOrDefault("addValues", "0.05")));
+                    break;
+                case "slidingWindow":
+                    slidingWindow(out, r, ops,
+                            Integer.parseInt(params.getOrDefault("window", "1000000")),
+                            Integer.parseInt(params.getOrDefault("burst", "10000")), gets);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown trace type: " + args[0]);
+            }
+        }
+    }
+
+    static void zipf(TraceWriter out, Random r, long ops, int keys, double exponent,
+            double gets, double puts, double addValues) throws IOException {
+        if (gets + puts + addValues > 1.0)
+            throw new IllegalArgumentException("Sum of op probabilities is greater than 1");
+        double[] cdf = new double[keys];
+        double sum = 0.0;
+        for (int rank = 0; rank < keys; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cdf[rank] = sum;
+        }
+        for (int rank = 0; rank < keys; rank++) {
+            cdf[rank] /= sum;
+        }
+        int[] rankKeys = new int[keys];
+        IntSet keySet = HashIntSets.newUpdatableSet(keys);
+        for (int rank = 0; rank < keys; ) {
+            int key = r.nextInt();
+            if (keySet.add(key))
+                rankKeys[rank++] = key;
+        }
+        for (long i = 0; i < ops; i++) {
+            int rank = Arrays.binarySearch(cdf, r.nextDouble());
+            rank = Math.min(rank >= 0 ? rank : -rank - 1, keys - 1);
+            double p = r.nextDouble();
+            byte op = p < gets ? GET : p < gets + puts ? PUT :
+                    p < gets + puts + addValues ? ADD_VALUE : REMOVE;
+            out.write(op, rankKeys[rank], r.nextInt(1000));
+        }
+    }
+
+    static void slidingWindow(TraceWriter out, Random r, long ops, int window, int burst,
+            double gets) throws IOException {
+        int oldest = 0, next = 0;
+        for (long i = 0; i < ops; ) {
+            if (next - oldest >= window + burst) {
+                for (int j = 0; j < burst && i < ops; j++, i++) {
+                    out.write(REMOVE, oldest++, 0L);
+                }
+            } else if (next > oldest && r.nextDouble() < gets) {
+                out.write(GET, oldest + r.nextInt(next - oldest), 0L);
+                i++;
+            } else {
+                out.write(PUT, next, next);
+                next++;
+                i++;
+            }
+        }
+    }
+}
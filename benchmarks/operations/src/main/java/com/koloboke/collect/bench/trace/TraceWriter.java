@@ -0,0 +1,52 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.bench.trace;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+
+/**
+ * Writes {@link Trace} files.
+ */
+public final class TraceWriter implements Closeable {
+
+    private final DataOutputStream out;
+
+    public TraceWriter(Path file) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        out.writeInt(Trace.MAGIC);
+        out.writeInt(Trace.VERSION);
+    }
+
+    public void write(byte op, int key, long value) throws IOException {
+        if (op < Trace.GET || op > Trace.REMOVE)
+            throw new IllegalArgumentException("Unknown op code " + op);
+        out.writeByte(op);
+        out.writeInt(key);
+        out.writeLong(value);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
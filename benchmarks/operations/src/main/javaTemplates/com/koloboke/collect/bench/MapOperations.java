@@ -0,0 +1,276 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.bench;
+
+import com.koloboke.bench.DimensionedJmh;
+import com.koloboke.collect.map.*;
+import com.koloboke.collect.map.hash.*;
+import com.koloboke.collect.set.hash.*;
+import com.koloboke.function.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.Integer.parseInt;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+
+/**
+ * Operations of primitive-key, primitive-value maps of the {@code lib:impl} factories, for all
+ * key and value types, Mutable, Updatable and Immutable maps (operations, which are supported by
+ * the map). Each benchmark invocation performs an operation with each of {@code size} keys, or
+ * iterates all mappings once, so that results are reported per key.
+ *
+ * <p>Invocations are too short for per-invocation setup, so the benchmarks, which change the set
+ * of keys in the map, restore it themselves, and this is measured too: insertions into an empty
+ * map start with {@code clear()}, a single fill of the table, amortized over {@code size}
+ * insertions, and removals ({@code removeRefill} and {@code cursorRemoveRefill} ops) end with
+ * {@code putAll()} of the removed mappings, so they report the cost of a removal and
+ * an insertion.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 5, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = SECONDS)
+public class MapOperations {
+
+    /**
+     * From maps fitting L1 cache to maps, tables of which are much larger than L3 cache,
+     * for all key and value types
+     */
+    static final int[] SIZES = {100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000};
+    static final int SIZE = Integer.getInteger("size", 1_000);
+
+    /**
+     * Byte, char and short keys have a limited number of distinct values, maps with these keys
+     * are benchmarked with at most that many keys.
+     */
+    static int keyCount(String keyType, int size) {
+        switch (keyType) {
+            case "byte": return Math.min(size, 1 << Byte.SIZE);
+            case "char":
+            case "short": return Math.min(size, 1 << Short.SIZE);
+            default: return size;
+        }
+    }
+
+    /* with char|byte|short|int|long|float|double key */
+
+    static final int CHAR_KEYS = keyCount("char", SIZE);
+
+    /** Returns distinct keys in random order */
+    static char[] distinctCharKeys(int n, Random r) {
+        HashCharSet keySet = HashCharSets.newUpdatableSet(n);
+        char[] keys = new char[n];
+        for (int i = 0; i < n; ) {
+            char key = (char) r.nextLong();
+            if (keySet.add(key))
+                keys[i++] = key;
+        }
+        return keys;
+    }
+
+    /* endwith */
+
+    /* with char|byte|short|int|long|float|double key
+            short|byte|char|int|long|float|double value */
+
+    static HashCharShortMap newUpdatableCharShortMap(char[] keys) {
+        HashCharShortMap map = HashCharShortMaps.newUpdatableMap(keys.length);
+        for (char key : keys) {
+            map.put(key, (short) 1);
+        }
+        return map;
+    }
+
+    static class CharShortSum implements CharShortConsumer {
+        long dummy = 0L;
+
+        @Override
+        public void accept(char key, short value) {
+            dummy ^= (long) key + (long) value;
+        }
+    }
+
+    /* with Mutable|Updatable|Immutable mutability */
+
+    @State(Scope.Thread)
+    public static class MutableCharShortMapState {
+        char[] keys;
+        HashCharShortMap map;
+        /* if !(Immutable mutability) */
+        /** The same mappings as the map has initially, to restore it */
+        HashCharShortMap source;
+        /* endif */
+
+        @Setup(Level.Trial)
+        public void allocate() {
+            keys = distinctCharKeys(CHAR_KEYS, ThreadLocalRandom.current());
+            HashCharShortMap source = newUpdatableCharShortMap(keys);
+            map = HashCharShortMaps.newMutableMap(source);
+            /* if !(Immutable mutability) */this.source = source;/* endif */
+        }
+
+        @TearDown(Level.Trial)
+        public void recycle() {
+            keys = null;
+            map = null;
+            /* if !(Immutable mutability) */source = null;/* endif */
+        }
+    }
+
+    @Benchmark
+    public long getOp_mutableMap_charKey_shortValue(MutableCharShortMapState state) {
+        HashCharShortMap map = state.map;
+        long dummy = 0L;
+        for (char key : state.keys) {
+            dummy ^= (long) map.get(key);
+        }
+        return dummy;
+    }
+
+    @Benchmark
+    public long iterOp_mutableMap_charKey_shortValue(MutableCharShortMapState state) {
+        long dummy = 0L;
+        for (CharShortCursor cur = state.map.cursor(); cur.moveNext();) {
+            dummy ^= (long) cur.key() + (long) cur.value();
+        }
+        return dummy;
+    }
+
+    @Benchmark
+    public long forEachOp_mutableMap_charKey_shortValue(MutableCharShortMapState state) {
+        CharShortSum sum = new CharShortSum();
+        state.map.forEach(sum);
+        return sum.dummy;
+    }
+
+    /* if !(Immutable mutability) */
+    @Benchmark
+    public int putOp_mutableMap_charKey_shortValue(MutableCharShortMapState state) {
+        HashCharShortMap map = state.map;
+        map.clear();
+        for (char key : state.keys) {
+            map.put(key, (short) 1);
+        }
+        return map.size();
+    }
+
+    @Benchmark
+    public long addValueOp_mutableMap_charKey_shortValue(MutableCharShortMapState state) {
+        HashCharShortMap map = state.map;
+        long dummy = 0L;
+        for (char key : state.keys) {
+            dummy ^= (long) map.addValue(key, (short) 1);
+        }
+        return dummy;
+    }
+
+    @Benchmark
+    public long computeIfAbsentOp_mutableMap_charKey_shortValue(
+            MutableCharShortMapState state) {
+        HashCharShortMap map = state.map;
+        map.clear();
+        long dummy = 0L;
+        for (char key : state.keys) {
+            dummy ^= (long) map.computeIfAbsent(key, k -> (short) k);
+        }
+        return dummy;
+    }
+
+    @Benchmark
+    public long computeIfPresentOp_mutableMap_charKey_shortValue(
+            MutableCharShortMapState state) {
+        HashCharShortMap map = state.map;
+        long dummy = 0L;
+        for (char key : state.keys) {
+            dummy ^= (long) map.computeIfPresent(key, (k, v) -> (short) (v + 1));
+        }
+        return dummy;
+    }
+
+    @Benchmark
+    public long computeOp_mutableMap_charKey_shortValue(MutableCharShortMapState state) {
+        HashCharShortMap map = state.map;
+        long dummy = 0L;
+        for (char key : state.keys) {
+            dummy ^= (long) map.compute(key, (k, v) -> (short) (v + 1));
+        }
+        return dummy;
+    }
+
+    @Benchmark
+    public long mergeOp_mutableMap_charKey_shortValue(MutableCharShortMapState state) {
+        HashCharShortMap map = state.map;
+        long dummy = 0L;
+        for (char key : state.keys) {
+            dummy ^= (long) map.merge(key, (short) 1, (v1, v2) -> (short) (v1 + v2));
+        }
+        return dummy;
+    }
+
+    @Benchmark
+    public int putAllOp_mutableMap_charKey_shortValue(MutableCharShortMapState state) {
+        state.map.clear();
+        state.map.putAll(state.source);
+        return state.map.size();
+    }
+    /* endif */
+
+    /* if Mutable mutability */
+    @Benchmark
+    public int removeRefillOp_mutableMap_charKey_shortValue(MutableCharShortMapState state) {
+        HashCharShortMap map = state.map;
+        for (char key : state.keys) {
+            map.remove(key);
+        }
+        int size = map.size();
+        map.putAll(state.source);
+        return size;
+    }
+
+    @Benchmark
+    public int cursorRemoveRefillOp_mutableMap_charKey_shortValue(
+            MutableCharShortMapState state) {
+        HashCharShortMap map = state.map;
+        for (CharShortCursor cur = map.cursor(); cur.moveNext();) {
+            cur.remove();
+        }
+        int size = map.size();
+        map.putAll(state.source);
+        return size;
+    }
+    /* endif */
+
+    /* endwith */
+    /* endwith */
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new DimensionedJmh(MapOperations.class)
+                .addArgDim("size", Arrays.stream(SIZES).mapToObj(Integer::valueOf).toArray())
+                .withGetOperationsPerInvocation(options ->
+                        keyCount(options.get("key"), parseInt(options.get("size"))))
+                .run(args);
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.bench;
+
+import com.koloboke.bench.DimensionedJmh;
+import com.koloboke.collect.map.hash.*;
+import com.koloboke.collect.set.hash.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+
+/**
+ * Lookups in a {@code HashLongObjMap}, shared by several reader threads, without any writes.
+ * Each benchmark thread queries the map with its own sequence of keys. The time per lookup is
+ * reported per thread, so with perfect scaling it stays the same as the number of threads grows.
+ *
+ * <p>Arg dimensions:
+ * <ul>
+ *     <li>{@code threads}: the number of JMH threads, from 1 to the number of available
+ *     processors;</li>
+ *     <li>{@code size}: the number of mappings;</li>
+ *     <li>{@code affinity}: {@code none} leaves threads to the OS scheduler, {@code pinned} pins
+ *     each benchmark thread to a separate CPU with {@code taskset}, Linux only.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = SECONDS)
+public class ReadScaling {
+
+    static final int SIZE = Integer.getInteger("size", 1_000_000);
+    static final boolean PINNED = "pinned".equals(System.getProperty("affinity", "none"));
+
+    /** Per invocation of each thread */
+    static final int QUERIES = 1 << 16;
+
+    /** For the same map keys in all states, which need them */
+    private static final long KEYS_SEED = 42L;
+    private static long[] randomKeys, sequentialKeys;
+
+    /** Random distinct keys, in random order */
+    static synchronized long[] randomKeys() {
+        if (randomKeys == null) {
+            Random r = new Random(KEYS_SEED);
+            HashLongSet keySet = HashLongSets.newUpdatableSet(SIZE);
+            long[] keys = new long[SIZE];
+            for (int i = 0; i < SIZE; ) {
+                long key = r.nextLong();
+                if (keySet.add(key))
+                    keys[i++] = key;
+            }
+            randomKeys = keys;
+        }
+        return randomKeys;
+    }
+
+    /** Keys from 0 to size - 1, like ids */
+    static synchronized long[] sequentialKeys() {
+        if (sequentialKeys == null)
+            sequentialKeys = IntStream.range(0, SIZE).asLongStream().toArray();
+        return sequentialKeys;
+    }
+
+    static HashLongObjMap<Long> updatableMap(long[] keys) {
+        HashLongObjMap<Long> map = HashLongObjMaps.newUpdatableMap(keys.length);
+        for (long key : keys) {
+            map.put(key, Long.valueOf(key));
+        }
+        return map;
+    }
+
+    static long lookup(HashLongObjMap<Long> map, long[] queries) {
+        long dummy = 0L;
+        for (long key : queries) {
+            // dereference the value, as readers of shared maps do
+            dummy += map.get(key).longValue();
+        }
+        return dummy;
+    }
+
+    private static final AtomicInteger nextCpu = new AtomicInteger();
+
+    /**
+     * Pins the current thread to the next CPU with {@code taskset}, because there is no way to set
+     * thread affinity in Java without native code. Requires Linux 3.17+ for /proc/thread-self.
+     */
+    static void pinCurrentThread() {
+        int cpu = nextCpu.getAndIncrement() % Runtime.getRuntime().availableProcessors();
+        try {
+            String tid = Files.readSymbolicLink(Paths.get("/proc/thread-self"))
+                    .getFileName().toString();
+            Process taskset = new ProcessBuilder("taskset", "-pc", String.valueOf(cpu), tid)
+                    .redirectErrorStream(true).start();
+            if (taskset.waitFor() != 0)
+                throw new IOException("taskset exited with code " + taskset.exitValue());
+        } catch (IOException | InterruptedException | UnsupportedOperationException e) {
+            throw new IllegalStateException("Could not pin thread to CPU " + cpu, e);
+        }
+    }
+
+    public static abstract class Queries {
+        long[] queries = new long[QUERIES];
+
+        @Setup(Level.Trial)
+        public void generate() {
+            if (PINNED)
+                pinCurrentThread();
+            fill(ThreadLocalRandom.current());
+        }
+
+        abstract void fill(Random r);
+
+        @TearDown(Level.Trial)
+        public void recycle() {
+            queries = null;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class UniformQueries extends Queries {
+        @Override
+        void fill(Random r) {
+            long[] keys = randomKeys();
+            for (int i = 0; i < QUERIES; i++) {
+                queries[i] = keys[r.nextInt(keys.length)];
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ZipfQueries extends Queries {
+        /**
+         * Keys, randomKeys() are in random order, are ranked by their index. Each key is queried
+         * a number of times, inversely proportional to its rank, at least once, until all queries
+         * are filled, then queries are shuffled.
+         */
+        @Override
+        void fill(Random r) {
+            long[] keys = randomKeys();
+            double c = QUERIES / harmonic(keys.length);
+            int i = 0;
+            for (int rank = 1; i < QUERIES; rank++) {
+                int count = Math.max((int) (c / rank + 0.5), 1);
+                long key = keys[(rank - 1) % keys.length];
+                for (int limit = Math.min(QUERIES, i + count); i < limit; i++) {
+                    queries[i] = key;
+                }
+            }
+            for (int j = QUERIES - 1; j > 0; j--) {
+                int index = r.nextInt(j + 1);
+                long t = queries[index];
+                queries[index] = queries[j];
+                queries[j] = t;
+            }
+        }
+
+        private static double harmonic(int n) {
+            double h = 0.0;
+            for (int i = 1; i <= n; i++) {
+                h += 1.0 / i;
+            }
+            return h;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SequentialQueries extends Queries {
+        /** Ascending keys, from a random start, so that threads don't go in lockstep */
+        @Override
+        void fill(Random r) {
+            long[] keys = sequentialKeys();
+            int start = r.nextInt(keys.length);
+            for (int i = 0; i < QUERIES; i++) {
+                queries[i] = keys[(start + i) % keys.length];
+            }
+        }
+    }
+
+    /* with Immutable|Updatable mutability */
+
+    @State(Scope.Benchmark)
+    public static class ImmutableRandomMap {
+        HashLongObjMap<Long> map;
+
+        @Setup(Level.Trial)
+        public void build() {
+            map = HashLongObjMaps.newImmutableMap(updatableMap(randomKeys()));
+        }
+
+        @TearDown(Level.Trial)
+        public void recycle() {
+            map = null;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ImmutableSequentialMap {
+        HashLongObjMap<Long> map;
+
+        @Setup(Level.Trial)
+        public void build() {
+            map = HashLongObjMaps.newImmutableMap(updatableMap(sequentialKeys()));
+        }
+
+        @TearDown(Level.Trial)
+        public void recycle() {
+            map = null;
+        }
+    }
+
+    @Benchmark
+    public long get_immutableMap_uniformKeys(ImmutableRandomMap m, UniformQueries q) {
+        return lookup(m.map, q.queries);
+    }
+
+    @Benchmark
+    public long get_immutableMap_zipfKeys(ImmutableRandomMap m, ZipfQueries q) {
+        return lookup(m.map, q.queries);
+    }
+
+    @Benchmark
+    public long get_immutableMap_sequentialKeys(ImmutableSequentialMap m, SequentialQueries q) {
+        return lookup(m.map, q.queries);
+    }
+
+    /* endwith */
+
+    static Object[] threads() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return IntStream.concat(
+                IntStream.iterate(1, t -> t * 2).limit(31).filter(t -> t < processors),
+                IntStream.of(processors)).boxed().toArray();
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new DimensionedJmh(ReadScaling.class)
+                .addThreadsDim(threads())
+                .addArgDim("size", 10_000, 1_000_000, 10_000_000)
+                .addArgDim("affinity", "none", "pinned")
+                .withGetOperationsPerInvocation(options -> QUERIES)
+                .run(args);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.bench.trace;
+
+import com.koloboke.bench.DimensionedJmh;
+import com.koloboke.collect.hash.HashConfig;
+import com.koloboke.collect.impl.hash.*;
+import com.koloboke.collect.map.hash.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.Double.parseDouble;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+
+/**
+ * Replays a {@link Trace} on a new {@code HashIntLongMap} or {@code HashObjIntMap} (with string
+ * keys, derived from the trace keys) of LHash or QHash factory, with the given {@code HashConfig}.
+ * Results are reported per trace record.
+ *
+ * <p>Arg dimensions:
+ * <ul>
+ *     <li>{@code trace}: trace files, no predefined options;</li>
+ *     <li>{@code loads}: min, target and max loads of the hash config, separated by colons.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 5, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = SECONDS)
+public class TraceReplay {
+
+    static final Path TRACE = Paths.get(System.getProperty("trace", "trace.bin"));
+    static final HashConfig CONFIG = config(System.getProperty("loads", "0.33:0.5:0.67"));
+
+    static HashConfig config(String loads) {
+        String[] parts = loads.split(":");
+        if (parts.length != 3)
+            throw new IllegalArgumentException("Expected minLoad:targetLoad:maxLoad: " + loads);
+        return HashConfig.fromLoads(
+                parseDouble(parts[0]), parseDouble(parts[1]), parseDouble(parts[2]));
+    }
+
+    static long replay(HashIntLongMap map, Trace trace) {
+        byte[] ops = trace.ops;
+        int[] keys = trace.keys;
+        long[] values = trace.values;
+        long dummy = 0L;
+        for (int i = 0; i < ops.length; i++) {
+            switch (ops[i]) {
+                case Trace.GET: dummy ^= map.get(keys[i]); break;
+                case Trace.PUT: dummy ^= map.put(keys[i], values[i]); break;
+                case Trace.ADD_VALUE: dummy ^= map.addValue(keys[i], values[i]); break;
+                case Trace.REMOVE: dummy ^= map.remove(keys[i]); break;
+                default: throw new AssertionError();
+            }
+        }
+        return dummy;
+    }
+
+    static long replay(HashObjIntMap<String> map, Trace trace, String[] keys) {
+        byte[] ops = trace.ops;
+        long[] values = trace.values;
+        long dummy = 0L;
+        for (int i = 0; i < ops.length; i++) {
+            switch (ops[i]) {
+                case Trace.GET: dummy ^= map.getInt(keys[i]); break;
+                case Trace.PUT: dummy ^= map.put(keys[i], (int) values[i]); break;
+                case Trace.ADD_VALUE: dummy ^= map.addValue(keys[i], (int) values[i]); break;
+                case Trace.REMOVE: dummy ^= map.removeAsInt(keys[i]); break;
+                default: throw new AssertionError();
+            }
+        }
+        return dummy;
+    }
+
+    @State(Scope.Thread)
+    public static class TraceState {
+        Trace trace;
+
+        @Setup(Level.Trial)
+        public void load() throws IOException {
+            trace = Trace.read(TRACE);
+        }
+
+        @TearDown(Level.Trial)
+        public void recycle() {
+            trace = null;
+        }
+    }
+
+    /* with LHash|QHash hash */
+
+    static final HashIntLongMapFactory L_HASH_INT_LONG_FACTORY =
+            new LHashSeparateKVIntLongMapFactoryImpl().withHashConfig(CONFIG);
+    static final HashObjIntMapFactory<String> L_HASH_OBJ_INT_FACTORY =
+            new LHashSeparateKVObjIntMapFactoryImpl<String>().withHashConfig(CONFIG);
+
+    public static class LHashIntLongMapState extends TraceState {
+        HashIntLongMap map;
+
+        @Setup(Level.Invocation)
+        public void newMap() {
+            map = L_HASH_INT_LONG_FACTORY.newMutableMap();
+        }
+    }
+
+    public static class LHashObjIntMapState extends TraceState {
+        HashObjIntMap<String> map;
+        String[] keys;
+
+        @Setup(Level.Invocation)
+        public void newMap() {
+            keys = trace.objKeys();
+            map = L_HASH_OBJ_INT_FACTORY.newMutableMap();
+        }
+    }
+
+    @Benchmark
+    public long replay_intLongMap_lHash(LHashIntLongMapState state) {
+        return replay(state.map, state.trace);
+    }
+
+    @Benchmark
+    public long replay_objIntMap_lHash(LHashObjIntMapState state) {
+        return replay(state.map, state.trace, state.keys);
+    }
+
+    /* endwith */
+
+    static long length(String trace) {
+        try {
+            return Trace.length(Paths.get(trace));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new DimensionedJmh(TraceReplay.class)
+                .addArgDim("trace")
+                .addArgDim("loads", "0.33:0.5:0.67", "0.5:0.7:0.85", "0.7:0.85:0.95")
+                .withGetOperationsPerInvocation(options -> length(options.get("trace")))
+                .run(args);
+    }
+}
@@ -0,0 +1,508 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.research.hash;
+
+import com.koloboke.collect.hash.HashConfig;
+import com.koloboke.collect.impl.hash.*;
+import com.koloboke.collect.set.hash.HashLongSet;
+import com.koloboke.collect.set.hash.HashLongSets;
+import com.koloboke.collect.set.hash.HashObjSet;
+import com.koloboke.collect.set.hash.HashObjSets;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.LongToIntFunction;
+import java.util.stream.Collectors;
+
+import static java.lang.Double.parseDouble;
+
+
+/**
+ * Simulates insertion of the given distinct keys into LHash, QHash and DHash tables, of the
+ * capacities, chosen by the library for the key count and the given {@code HashConfig}s, with
+ * each applicable key mixing function, and reports probe and cluster statistics, to choose
+ * the table type and the config for a real key distribution. Keys are not stored, only the
+ * occupied slots, so analysis of a dump of hundreds of millions of keys is feasible.
+ * <pre>
+ * ints|longs|strings file|random:N [binary] [loads=min:target:max,...] [tables=lHash,...]
+ *         [mixings=lHash,...]</pre>
+ *
+ * <p>Keys are read from the text file, one key per line, or a file of big-endian ints or longs
+ * in {@link DataOutput} format, if {@code binary} is given. {@code random:N} is N random keys.
+ * Output is CSV, with a line per table, mixing and config.
+ */
+public final class HashQualityAnalyzer {
+
+    public enum KeyType {
+        INT {
+            @Override
+            Map<String, LongToIntFunction> mixings() {
+                Map<String, LongToIntFunction> mixings = new LinkedHashMap<>();
+                mixings.put("lHash", k -> LHash.SeparateKVIntKeyMixing.mix((int) k));
+                mixings.put("qHash", k -> QHash.SeparateKVIntKeyMixing.mix((int) k));
+                mixings.put("dHash", k -> DHash.SeparateKVIntKeyMixing.mix((int) k));
+                mixings.put("murmur3", k -> murmur3((int) k));
+                mixings.put("identity", k -> (int) k);
+                return mixings;
+            }
+
+            @Override
+            long parse(String key) {
+                return Integer.parseInt(key);
+            }
+
+            @Override
+            long read(DataInput in) throws IOException {
+                return in.readInt();
+            }
+        },
+
+        LONG {
+            @Override
+            Map<String, LongToIntFunction> mixings() {
+                Map<String, LongToIntFunction> mixings = new LinkedHashMap<>();
+                mixings.put("lHash", LHash.SeparateKVLongKeyMixing::mix);
+                mixings.put("qHash", QHash.SeparateKVLongKeyMixing::mix);
+                mixings.put("dHash", DHash.SeparateKVLongKeyMixing::mix);
+                mixings.put("murmur3", k -> (int) murmur3(k));
+                mixings.put("identity", k -> (int) k);
+                return mixings;
+            }
+
+            @Override
+            long parse(String key) {
+                return Long.parseLong(key);
+            }
+
+            @Override
+            long read(DataInput in) throws IOException {
+                return in.readLong();
+            }
+        },
+
+        /** Keys are {@code hashCode()}s of the strings */
+        STRING {
+            @Override
+            Map<String, LongToIntFunction> mixings() {
+                Map<String, LongToIntFunction> mixings = new LinkedHashMap<>();
+                mixings.put("lHash", k -> LHash.SeparateKVObjKeyMixing.mix((int) k));
+                mixings.put("qHash", k -> QHash.SeparateKVObjKeyMixing.mix((int) k));
+                mixings.put("dHash", k -> DHash.SeparateKVObjKeyMixing.mix((int) k));
+                mixings.put("murmur3", k -> murmur3((int) k));
+                mixings.put("identity", k -> (int) k);
+                return mixings;
+            }
+
+            @Override
+            long parse(String key) {
+                return key.hashCode();
+            }
+
+            @Override
+            long read(DataInput in) {
+                throw new UnsupportedOperationException("Strings are read only from text files");
+            }
+        };
+
+        /** Mixing functions, applicable to keys of this type, by name */
+        abstract Map<String, LongToIntFunction> mixings();
+
+        abstract long parse(String key);
+
+        abstract long read(DataInput in) throws IOException;
+    }
+
+    public enum Table {
+        L_HASH("lHash") {
+            @Override
+            int capacity(HashConfig config, int size) {
+                return LHashCapacities.capacity(new HashConfigWrapper(config), size);
+            }
+
+            @Override
+            long probe(boolean[] slots, int hash) {
+                int capacityMask = slots.length - 1;
+                int index = hash & capacityMask;
+                int probes = 1;
+                while (slots[index]) {
+                    index = (index - 1) & capacityMask;
+                    probes++;
+                }
+                return probeResult(probes, index);
+            }
+        },
+
+        Q_HASH("qHash") {
+            @Override
+            int capacity(HashConfig config, int size) {
+                return QHashCapacities.capacity(new HashConfigWrapper(config), size);
+            }
+
+            @Override
+            long probe(boolean[] slots, int hash) {
+                int capacity = slots.length;
+                int index = (hash & Integer.MAX_VALUE) % capacity;
+                int probes = 1;
+                if (slots[index]) {
+                    int bIndex = index, fIndex = index, step = 1;
+                    while (true) {
+                        probes++;
+                        if ((bIndex -= step) < 0) bIndex += capacity;
+                        if (!slots[bIndex]) {
+                            index = bIndex;
+                            break;
+                        }
+                        probes++;
+                        int t;
+                        if ((t = (fIndex += step) - capacity) >= 0) fIndex = t;
+                        if (!slots[fIndex]) {
+                            index = fIndex;
+                            break;
+                        }
+                        step += 2;
+                    }
+                }
+                return probeResult(probes, index);
+            }
+        },
+
+        D_HASH("dHash") {
+            @Override
+            int capacity(HashConfig config, int size) {
+                return DHashCapacities.capacity(new HashConfigWrapper(config), size);
+            }
+
+            @Override
+            long probe(boolean[] slots, int hash) {
+                int capacity = slots.length;
+                hash &= Integer.MAX_VALUE;
+                int index = hash % capacity;
+                int probes = 1;
+                if (slots[index]) {
+                    int step = (hash % (capacity - 2)) + 1;
+                    do {
+                        if ((index -= step) < 0) index += capacity;
+                        probes++;
+                    } while (slots[index]);
+                }
+                return probeResult(probes, index);
+            }
+        };
+
+        final String name;
+
+        Table(String name) {
+            this.name = name;
+        }
+
+        abstract int capacity(HashConfig config, int size);
+
+        /**
+         * Finds the first free slot in the probe sequence of the given hash, returns the number
+         * of probes and the slot index, packed by {@link #probeResult}.
+         */
+        abstract long probe(boolean[] slots, int hash);
+
+        static long probeResult(int probes, int index) {
+            return (((long) probes) << 32) | index;
+        }
+
+        /** Occupies a free slot for a key with the given hash, returns the number of probes */
+        int insert(boolean[] slots, int hash) {
+            long result = probe(slots, hash);
+            slots[(int) result] = true;
+            return (int) (result >>> 32);
+        }
+
+        /** Returns the number of probes to find that a key with the given hash is absent */
+        int missProbes(boolean[] slots, int hash) {
+            return (int) (probe(slots, hash) >>> 32);
+        }
+
+        static Table byName(String name) {
+            for (Table table : values()) {
+                if (table.name.equals(name))
+                    return table;
+            }
+            throw new IllegalArgumentException("Unknown table: " + name);
+        }
+    }
+
+    public static final class Report {
+        public static final String CSV_HEADER = "table,mixing,loads,size,capacity,load," +
+                "averageProbes,maxProbes,averageMissProbes,averageCluster,maxCluster," +
+                "clusterSlots";
+
+        public final Table table;
+        public final String mixing;
+        public final HashConfig config;
+        public final int size;
+        public final int capacity;
+        /** Average number of probes to find a key, present in the table */
+        public final double averageProbes;
+        public final int maxProbes;
+        /**
+         * Average number of probes to find that a key is absent, for uniformly distributed
+         * hashes of absent keys (affected by the key distribution only through clustering)
+         */
+        public final double averageMissProbes;
+        /** Average length of runs of adjacent occupied slots, per run */
+        public final double averageCluster;
+        public final int maxCluster;
+        /**
+         * Element {@code i} is the fraction of occupied slots, which are in runs of
+         * [2 ^ i, 2 ^ (i + 1)) adjacent occupied slots
+         */
+        public final double[] clusterSlots;
+
+        Report(Table table, String mixing, HashConfig config, int size, int capacity,
+                double averageProbes, int maxProbes, double averageMissProbes,
+                double averageCluster, int maxCluster, double[] clusterSlots) {
+            this.table = table;
+            this.mixing = mixing;
+            this.config = config;
+            this.size = size;
+            this.capacity = capacity;
+            this.averageProbes = averageProbes;
+            this.maxProbes = maxProbes;
+            this.averageMissProbes = averageMissProbes;
+            this.averageCluster = averageCluster;
+            this.maxCluster = maxCluster;
+            this.clusterSlots = clusterSlots;
+        }
+
+        public double load() {
+            return ((double) size) / capacity;
+        }
+
+        public String toCsv() {
+            StringBuilder clusters = new StringBuilder();
+            for (int i = 0; i < clusterSlots.length; i++) {
+                if (clusterSlots[i] > 0.0) {
+                    if (clusters.length() > 0)
+                        clusters.append(' ');
+                    clusters.append(1 << i).append(':')
+                            .append(String.format(Locale.US, "%.4f", clusterSlots[i]));
+                }
+            }
+            return String.format(Locale.US, "%s,%s,%s,%d,%d,%.3f,%.3f,%d,%.3f,%.2f,%d,%s",
+                    table.name, mixing, loads(config), size, capacity, load(),
+                    averageProbes, maxProbes, averageMissProbes, averageCluster, maxCluster,
+                    clusters);
+        }
+    }
+
+    /** The number of simulated lookups of absent keys, per table */
+    private static final int MISS_LOOKUPS = 100_000;
+
+    /**
+     * Analyzes the given keys (which must be distinct, see {@link #distinct}) with each of the
+     * given tables, mixing functions (by names, see {@link KeyType}) and configs.
+     */
+    public static List<Report> analyze(KeyType keyType, long[] keys, List<Table> tables,
+            List<String> mixingNames, List<HashConfig> configs) {
+        Map<String, LongToIntFunction> allMixings = keyType.mixings();
+        List<Report> reports = new ArrayList<>();
+        for (Table table : tables) {
+            for (String mixingName : mixingNames) {
+                LongToIntFunction mixing = allMixings.get(mixingName);
+                if (mixing == null)
+                    throw new IllegalArgumentException("Unknown mixing: " + mixingName);
+                for (HashConfig config : configs) {
+                    reports.add(analyze(keys, table, mixingName, mixing, config));
+                }
+            }
+        }
+        return reports;
+    }
+
+    private static Report analyze(long[] keys, Table table, String mixingName,
+            LongToIntFunction mixing, HashConfig config) {
+        int size = keys.length;
+        int capacity = table.capacity(config, size);
+        boolean[] slots = new boolean[capacity];
+        long probes = 0L;
+        int maxProbes = 0;
+        for (long key : keys) {
+            int p = table.insert(slots, mixing.applyAsInt(key));
+            probes += p;
+            maxProbes = Math.max(maxProbes, p);
+        }
+
+        long missProbes = 0L;
+        Random random = new Random(0);
+        for (int i = 0; i < MISS_LOOKUPS; i++) {
+            missProbes += table.missProbes(slots, random.nextInt());
+        }
+
+        return clusters(table, mixingName, config, size, capacity,
+                ((double) probes) / size, maxProbes, ((double) missProbes) / MISS_LOOKUPS, slots);
+    }
+
+    private static Report clusters(Table table, String mixingName, HashConfig config, int size,
+            int capacity, double averageProbes, int maxProbes, double averageMissProbes,
+            boolean[] slots) {
+        // start from a free slot, so that a run wrapping around the table end is counted once
+        int start = 0;
+        while (slots[start]) {
+            start++;
+        }
+        long[] clusterSlots = new long[Integer.SIZE];
+        int clusters = 0, maxCluster = 0, run = 0;
+        for (int i = 1; i <= capacity; i++) {
+            if (slots[(start + i) % capacity]) {
+                run++;
+            } else if (run > 0) {
+                clusters++;
+                maxCluster = Math.max(maxCluster, run);
+                clusterSlots[31 - Integer.numberOfLeadingZeros(run)] += run;
+                run = 0;
+            }
+        }
+        double[] clusterSlotFractions = new double[32 - Integer.numberOfLeadingZeros(maxCluster)];
+        for (int i = 0; i < clusterSlotFractions.length; i++) {
+            clusterSlotFractions[i] = ((double) clusterSlots[i]) / size;
+        }
+        return new Report(table, mixingName, config, size, capacity, averageProbes, maxProbes,
+                averageMissProbes, ((double) size) / clusters, maxCluster, clusterSlotFractions);
+    }
+
+    /** Returns distinct keys of the given array, string keys should be deduplicated as strings */
+    public static long[] distinct(long[] keys) {
+        HashLongSet set = HashLongSets.newUpdatableSet(keys);
+        return set.size() == keys.length ? keys : set.toLongArray();
+    }
+
+    public static long[] readKeys(KeyType keyType, Path file, boolean binary)
+            throws IOException {
+        if (binary) {
+            long keySize = keyType == KeyType.INT ? Integer.BYTES : Long.BYTES;
+            long count = Files.size(file) / keySize;
+            if (count > Integer.MAX_VALUE)
+                throw new IOException(file + " has too many keys: " + count);
+            long[] keys = new long[(int) count];
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = keyType.read(in);
+                }
+            }
+            return distinct(keys);
+        }
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (keyType == KeyType.STRING) {
+                HashObjSet<String> strings = HashObjSets.newUpdatableSet();
+                in.lines().forEach(strings::add);
+                return strings.stream().mapToLong(keyType::parse).toArray();
+            }
+            return distinct(in.lines().map(String::trim).filter(line -> !line.isEmpty())
+                    .mapToLong(keyType::parse).toArray());
+        }
+    }
+
+    static long[] randomKeys(KeyType keyType, int count) {
+        Random random = new Random(0);
+        long[] keys = new long[count];
+        HashLongSet set = HashLongSets.newUpdatableSet(count);
+        for (int i = 0; i < count; ) {
+            long key = keyType == KeyType.LONG ? random.nextLong() : random.nextInt();
+            if (set.add(key))
+                keys[i++] = key;
+        }
+        return keys;
+    }
+
+    private static final double[][] DEFAULT_LOADS =
+            {{0.33, 0.5, 0.67}, {0.5, 0.67, 0.8}, {0.6, 0.75, 0.9}};
+
+    static HashConfig config(String loads) {
+        String[] parts = loads.split(":");
+        if (parts.length != 3)
+            throw new IllegalArgumentException("Expected minLoad:targetLoad:maxLoad: " + loads);
+        return HashConfig.fromLoads(
+                parseDouble(parts[0]), parseDouble(parts[1]), parseDouble(parts[2]));
+    }
+
+    static String loads(HashConfig config) {
+        return config.getMinLoad() + ":" + config.getTargetLoad() + ":" + config.getMaxLoad();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ints|longs|strings file|random:N [binary] " +
+                    "[loads=min:target:max,...] [tables=lHash,...] [mixings=lHash,...]");
+            System.exit(1);
+        }
+        KeyType keyType = KeyType.valueOf(args[0].substring(0, args[0].length() - 1)
+                .toUpperCase());
+        boolean binary = false;
+        Map<String, String> params = new HashMap<>();
+        for (String arg : Arrays.asList(args).subList(2, args.length)) {
+            if ("binary".equals(arg)) {
+                binary = true;
+                continue;
+            }
+            String[] parts = arg.split("=");
+            if (parts.length != 2)
+                throw new IllegalArgumentException("Expected param=value, given " + arg);
+            params.put(parts[0], parts[1]);
+        }
+        long[] keys = args[1].startsWith("random:") ?
+                randomKeys(keyType, Integer.parseInt(args[1].substring("random:".length()))) :
+                readKeys(keyType, Paths.get(args[1]), binary);
+
+        List<HashConfig> configs = params.containsKey("loads") ?
+                Arrays.stream(params.get("loads").split(","))
+                        .map(HashQualityAnalyzer::config).collect(Collectors.toList()) :
+                Arrays.stream(DEFAULT_LOADS).map(l -> HashConfig.fromLoads(l[0], l[1], l[2]))
+                        .collect(Collectors.toList());
+        List<Table> tables = params.containsKey("tables") ?
+                Arrays.stream(params.get("tables").split(","))
+                        .map(Table::byName).collect(Collectors.toList()) :
+                Arrays.asList(Table.values());
+        List<String> mixings = params.containsKey("mixings") ?
+                Arrays.asList(params.get("mixings").split(",")) :
+                new ArrayList<>(keyType.mixings().keySet());
+
+        System.out.println(Report.CSV_HEADER);
+        for (Report report : analyze(keyType, keys, tables, mixings, configs)) {
+            System.out.println(report.toCsv());
+        }
+    }
+
+    static int murmur3(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    static long murmur3(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private HashQualityAnalyzer() {}
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tm;
+
+import com.gs.collections.api.map.primitive.*;
+import gnu.trove.map.*;
+import gnu.trove.map.hash.*;
+import com.koloboke.collect.impl.hash.*;
+import com.koloboke.collect.map.hash.*;
+import com.koloboke.collect.set.hash.*;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.openjdk.jol.info.GraphLayout.parseInstance;
+import static tm.TimeVsMemory.*;
+
+
+/**
+ * Memory footprint of the maps, benchmarked in {@link TimeVsMemory}, with {@code int} and
+ * {@code long} keys and values, for all sizes and load levels. Prints CSV with the retained size
+ * of the map per entry, in bytes, measured with JOL:
+ * <ul>
+ *     <li>{@code presized}: after insertion of {@code size} entries into the map, created for
+ *     the expected size;</li>
+ *     <li>{@code grown}: after insertion of {@code size} entries into the map, created with
+ *     the minimum capacity, i. e. with the slack left by the last growth;</li>
+ *     <li>{@code removed}: after removal of a half of entries from the grown map, per remaining
+ *     entry;</li>
+ *     <li>{@code shrunk}: after shrinking the map with removed entries, if the collection
+ *     supports shrinking, otherwise empty.</li>
+ * </ul>
+ * The {@code collections}, {@code key}, {@code loadLevel} and {@code size} columns have the same
+ * names and options as the dimensions of {@code TimeVsMemory}, so that the footprint could be
+ * joined with the times, exported with {@code --results=}, for time vs memory plots.
+ * {@code koloboke} are maps of the default factory (LHash), as in {@code TimeVsMemory},
+ * {@code kolobokeQHash} are maps of the QHash factory implementation.
+ */
+public final class Footprint {
+
+    static final String HEADER = "collections,key,loadLevel,size,presized,grown,removed,shrunk";
+
+    private static String bytesPerEntry(Object map, int size) {
+        // Locale.US for dot instead of comma as separator
+        return String.format(Locale.US, "%.3f", parseInstance(map).totalSize() * 1.0 / size);
+    }
+
+    /* with char|int|long key */
+    /* if !(char key) */
+
+    private static char[] distinctCharKeys(int n) {
+        Random r = ThreadLocalRandom.current();
+        HashCharSet keySet = HashCharSets.newUpdatableSet(n);
+        char[] keys = new char[n];
+        for (int i = 0; i < n; ) {
+            char key = (char) r.nextLong();
+            if (keySet.add(key))
+                keys[i++] = key;
+        }
+        return keys;
+    }
+
+    // Shadow updatable maps of TimeVsMemory, removes need mutable maps
+    static HashCharCharMap kolobokeCharCharMap(int loadLevel, int size) {
+        HashCharCharMapFactory factory = HashCharCharMaps.getDefaultFactory();
+        return factory.withHashConfig(config(loadLevel)).newMutableMap(size);
+    }
+
+    static HashCharCharMap kolobokeQHashCharCharMap(int loadLevel, int size) {
+        HashCharCharMapFactory factory = new QHashParallelKVCharCharMapFactoryImpl();
+        return factory.withHashConfig(config(loadLevel)).newMutableMap(size);
+    }
+
+    /* endif */
+    /* endwith */
+
+    /* define mapType */
+    /* if Koloboke|KolobokeQHash collections //HashCharCharMap
+    // elif Trove collections //TCharCharMap
+    // elif Hppc collections //com.carrotsearch.hppc.CharCharMap
+    // elif Gs collections //MutableCharCharMap
+    // elif Fastutil collections //it.unimi.dsi.fastutil.chars.Char2CharOpenHashMap
+    // elif Std collections //StdCharCharMap
+    // endif */
+    /* enddefine */
+
+    /* define remove */
+    /* if Gs collections //removeKey// elif !(Gs collections) //remove// endif */
+    /* enddefine */
+
+    /* define shrink */
+    /* if Koloboke|KolobokeQHash collections //map.shrink();
+    // elif Trove collections //((TCharCharHashMap) map).compact();
+    // elif Fastutil collections //map.trim();
+    // endif */
+    /* enddefine */
+
+    static void measure(int loadLevel, int size) {
+        /* with char|int|long key */
+        /* if !(char key) */
+        char[] charKeys = distinctCharKeys(size);
+        /* with Koloboke|KolobokeQHash|Trove|Hppc|Gs|Fastutil|Std collections */
+        try {
+            StringBuilder row = new StringBuilder("koloboke,char,");
+            row.append(loadLevel).append(',').append(size);
+
+            /*mapType*/HashCharCharMap/**/ map =
+                    kolobokeCharCharMap(loadLevel, size);
+            for (char key : charKeys) {
+                map.put(key, /* const key 1 */(char) 1/* endconst */);
+            }
+            row.append(',').append(bytesPerEntry(map, size));
+
+            map = kolobokeCharCharMap(loadLevel, 0);
+            for (char key : charKeys) {
+                map.put(key, /* const key 1 */(char) 1/* endconst */);
+            }
+            row.append(',').append(bytesPerEntry(map, size));
+
+            for (int i = 0; i < size; i += 2) {
+                map./*remove*/remove/**/(charKeys[i]);
+            }
+            int remaining = size / 2;
+            row.append(',').append(bytesPerEntry(map, remaining));
+
+            row.append(',');
+            /* if Koloboke|KolobokeQHash|Trove|Fastutil collections */
+            /*shrink*/map.shrink();/**/
+            row.append(bytesPerEntry(map, remaining));
+            /* endif */
+            System.out.println(row);
+        } catch (OutOfMemoryError e) {
+            System.err.printf("koloboke char loadLevel=%d size=%d: %s\n", loadLevel, size, e);
+        }
+        /* endwith */
+        /* endif */
+        /* endwith */
+    }
+
+    public static void main(String[] args) {
+        System.out.println(HEADER);
+        int[] sizes = sizes().toArray();
+        loadLevels().forEach(loadLevel -> {
+            for (int size : sizes) {
+                measure(loadLevel, size);
+            }
+        });
+    }
+}
@@ -45,7 +45,6 @@ import static java.lang.Integer.parseInt;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.IntStream.iterate;
 import static java.util.stream.IntStream.range;
-import static org.openjdk.jol.info.GraphLayout.parseInstance;
 
 
 @BenchmarkMode(Mode.AverageTime)
@@ -58,14 +57,15 @@ public class TimeVsMemory {
     static final int MIN_SIZE = 1000, MAX_SIZE = 10_000_000;
     static final int SIZE_STEPS = 10;
 
-    static IntStream sizes;
-    static {
+    static IntStream sizes() {
         double sizeRatio = MAX_SIZE * 1.0 / MIN_SIZE;
         double step = Math.pow(sizeRatio, 1.0 / (SIZE_STEPS - 1));
-        sizes = iterate(MIN_SIZE, s -> (int) (s * step)).limit(SIZE_STEPS);
+        return iterate(MIN_SIZE, s -> (int) (s * step)).limit(SIZE_STEPS);
     }
 
-    static final IntStream loadLevels = range(1, 10);
+    static IntStream loadLevels() {
+        return range(1, 10);
+    }
 
     static final int SIZE = Integer.getInteger("size", MIN_SIZE);
     static final int LOAD_LEVEL = Integer.getInteger("loadLevel", 5);
@@ -103,7 +103,7 @@ public class TimeVsMemory {
         }
     }
 
-    private static StdCharCharMap stdCharCharMap(int loadLevel, int size) {
+    static StdCharCharMap stdCharCharMap(int loadLevel, int size) {
         double loadFactor = 0.1 * loadLevel;
         int initialCapacity = (int) (size / loadFactor) + 1;
         return new StdCharCharMap(initialCapacity, (float) loadFactor);
@@ -121,7 +121,7 @@ public class TimeVsMemory {
         return dummy;
     }
 
-    private static com.koloboke.collect.map.CharCharMap kolobokeCharCharMap(
+    static com.koloboke.collect.map.CharCharMap kolobokeCharCharMap(
             int loadLevel, int size) {
         HashCharCharMapFactory factory = HashCharCharMaps.getDefaultFactory();
         factory = factory.withHashConfig(config(loadLevel));
@@ -141,7 +141,7 @@ public class TimeVsMemory {
         return dummy;
     }
 
-    private static TCharCharMap troveCharCharMap(int loadLevel, int size) {
+    static TCharCharMap troveCharCharMap(int loadLevel, int size) {
         double loadFactor = 0.1 * loadLevel;
         return new TCharCharHashMap(size, (float) loadFactor);
     }
@@ -159,7 +159,7 @@ public class TimeVsMemory {
         return dummy;
     }
 
-    private static com.carrotsearch.hppc.CharCharMap hppcCharCharMap(int loadLevel, int size) {
+    static com.carrotsearch.hppc.CharCharMap hppcCharCharMap(int loadLevel, int size) {
         double loadFactor = 0.1 * loadLevel;
         int initialCapacity = (int) (size / loadFactor) + 1;
         return new CharCharOpenHashMap(initialCapacity, (float) loadFactor);
@@ -178,7 +178,7 @@ public class TimeVsMemory {
         return dummy;
     }
 
-    private static MutableCharCharMap gsCharCharMap(int loadLevel, int size) {
+    static MutableCharCharMap gsCharCharMap(int loadLevel, int size) {
         double loadFactor = 0.1 * (loadLevel + 1);
         int initialCapacity = (int) (size / loadFactor);
         return new CharCharHashMap(initialCapacity);
@@ -196,7 +196,7 @@ public class TimeVsMemory {
         return dummy;
     }
 
-    private static it.unimi.dsi.fastutil.chars.Char2CharOpenHashMap fastutilCharCharMap(
+    static it.unimi.dsi.fastutil.chars.Char2CharOpenHashMap fastutilCharCharMap(
             int loadLevel, int size) {
         return new it.unimi.dsi.fastutil.chars.Char2CharOpenHashMap(
                 size, (float) (0.1 * loadLevel));
@@ -410,38 +410,13 @@ public class TimeVsMemory {
 
     public static void main(String[] args) throws RunnerException, CommandLineOptionException {
         if (Arrays.asList(args).contains("footprint")) {
-            footPrintMain();
+            Footprint.main(args);
             return;
         }
         new DimensionedJmh(TimeVsMemory.class)
-                .addArgDim("size", sizes.mapToObj(Integer::valueOf).toArray())
-                .addArgDim("loadLevel", loadLevels.mapToObj(Integer::valueOf).toArray())
+                .addArgDim("size", sizes().mapToObj(Integer::valueOf).toArray())
+                .addArgDim("loadLevel", loadLevels().mapToObj(Integer::valueOf).toArray())
                 .withGetOperationsPerInvocation(options -> parseInt(options.get("size")))
                 .run(args);
     }
-
-    static void footPrintMain() {
-        int[] ss = sizes.toArray();
-        loadLevels.forEach(loadLevel -> {
-            /* with Koloboke|Trove|Hppc|Gs|Fastutil|Mahout|Std collections char|int key */
-            /* if int key */
-            Arrays.stream(ss).forEach(size -> {
-                try {
-                    /*mapType*/com.koloboke.collect.map.CharCharMap/**/ map =
-                            kolobokeCharCharMap(loadLevel, size);
-                    Random r = ThreadLocalRandom.current();
-                    for (int i = 0; i < size; i++) {
-                        map.put((char) r.nextLong(), /* const key 1 */
-                                (char) 1/* endconst */);
-                    }
-                    double footPrint =
-                            (parseInstance(map).totalSize() * 1.0 / size) / 8.0 - 1.0;
-                    System.out.printf(Locale.US, "%d koloboke %.3f\n", loadLevel, footPrint);
-                } catch (Throwable e) {
-                }
-            });
-            /* endif */
-            /* endwith */
-        });
-    }
 }
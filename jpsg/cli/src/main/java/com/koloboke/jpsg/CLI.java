@@ -20,6 +20,7 @@ import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.converters.IParameterSplitter;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.*;
 
@@ -89,6 +90,13 @@ public final class CLI {
                         "SHORT: ObjFoo.OBJ_BAR.objBaz.")
         ObjectType.IdentifierStyle objectIdStyle = ObjectType.IdentifierStyle.SHORT;
 
+        @Parameter(
+                names = "--cache",
+                description = "File to record hashes of expanded templates in. Templates which " +
+                        "haven't changed since the previous generation with the same file " +
+                        "and options are not expanded again")
+        String cacheFile;
+
         @Parameter(names = {"-h", "--help"}, description = "Show this help", help = true)
         private boolean help;
     }
@@ -112,6 +120,7 @@ public final class CLI {
                 .with(parsedArgs.defaultContext)
                 .setSource(parsedArgs.roots.get(0))
                 .setTarget(parsedArgs.roots.get(1))
+                .setCacheFile(parsedArgs.cacheFile != null ? new File(parsedArgs.cacheFile) : null)
                 .generate();
     }
 
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.jpsg
+
+import org.slf4j.LoggerFactory
+import java.io.File
+import java.io.IOException
+import java.security.MessageDigest
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+
+
+/**
+ * On-disk record of templates expanded by the [Generator] during the previous generation: for each
+ * template, the hash of its content and the generator configuration, and the files generated from
+ * it. Templates with the same hash and all generated files in place are not expanded again.
+ *
+ * The file format is one line per template: the template path relative to the generator source,
+ * the hash and the generated file paths relative to the generator target, separated by tabs.
+ */
+internal class GenerationCache(private val file: File) {
+
+    internal class Entry(val hash: String, val outputs: List<String>)
+
+    private val entries = ConcurrentHashMap<String, Entry>()
+
+    fun load() {
+        entries.clear()
+        if (!file.isFile)
+            return
+        val lines = file.readLines()
+        if (lines.isEmpty() || lines[0] != FORMAT_HEADER) {
+            log.info("Ignoring generation cache {} of unknown format", file)
+            return
+        }
+        for (line in lines.subList(1, lines.size)) {
+            val parts = line.split('\t')
+            if (parts.size < 2) {
+                log.info("Ignoring malformed generation cache {}", file)
+                entries.clear()
+                return
+            }
+            entries.put(parts[0], Entry(parts[1], parts.subList(2, parts.size)))
+        }
+    }
+
+    @Throws(IOException::class)
+    fun save() {
+        file.parentFile?.mkdirs()
+        val sb = StringBuilder(FORMAT_HEADER).append('\n')
+        for (template in entries.keys.sorted()) {
+            val entry = entries[template]!!
+            sb.append(template).append('\t').append(entry.hash)
+            entry.outputs.forEach { sb.append('\t').append(it) }
+            sb.append('\n')
+        }
+        file.writeText(sb.toString())
+    }
+
+    fun isUpToDate(template: String, hash: String, target: File): Boolean {
+        val entry = entries[template] ?: return false
+        return entry.hash == hash && entry.outputs.all { target.resolve(it).isFile }
+    }
+
+    /**
+     * Records the new outputs of the template and returns the outputs of the previous generation
+     * which are not generated anymore.
+     */
+    fun put(template: String, hash: String, outputs: List<String>): List<String> {
+        val previous = entries.put(template, Entry(hash, outputs)) ?: return emptyList()
+        return previous.outputs.filter { it !in outputs }
+    }
+
+    /**
+     * Forgets templates not in the given set and returns their outputs.
+     */
+    fun retainTemplates(templates: Set<String>): List<String> {
+        val removedOutputs = ArrayList<String>()
+        val iterator = entries.entries.iterator()
+        while (iterator.hasNext()) {
+            val e = iterator.next()
+            if (e.key !in templates) {
+                removedOutputs.addAll(e.value.outputs)
+                iterator.remove()
+            }
+        }
+        return removedOutputs
+    }
+
+    companion object {
+        private val log = LoggerFactory.getLogger(GenerationCache::class.java)
+
+        private const val FORMAT_HEADER = "jpsg-generation-cache 1"
+
+        fun hash(vararg parts: String): String {
+            val digest = MessageDigest.getInstance("SHA-256")
+            for (part in parts) {
+                digest.update(part.toByteArray(Charsets.UTF_8))
+                // separator, so that ("ab", "c") and ("a", "bc") hash differently
+                digest.update(0.toByte())
+            }
+            return digest.digest().joinToString("") { "%02x".format(it) }
+        }
+
+        /**
+         * Returns a hash of the code of the given classes, i. e. of the contents of the jars or
+         * the class directories they are loaded from, so that any change in the implementation
+         * of the classes or the code they depend on in the same jar or directory changes
+         * the hash. If the code source of a class is unknown, its class file is hashed.
+         */
+        fun codeHash(classes: Iterable<Class<*>>): String {
+            val digest = MessageDigest.getInstance("SHA-256")
+            val codeSources = TreeSet<File>()
+            for (c in classes) {
+                val location = c.protectionDomain?.codeSource?.location
+                if (location != null && location.protocol == "file") {
+                    codeSources.add(File(location.toURI()))
+                } else {
+                    val classFile = c.name.substringAfterLast('.') + ".class"
+                    digest.update(c.name.toByteArray(Charsets.UTF_8))
+                    c.getResourceAsStream(classFile)?.use { digest.update(it.readBytes()) }
+                }
+            }
+            digest.update(codeSourcesHash(codeSources).toByteArray(Charsets.UTF_8))
+            return digest.digest().joinToString("") { "%02x".format(it) }
+        }
+
+        /** Returns a hash of the given jars, or class directories with all files in them */
+        fun codeSourcesHash(codeSources: Iterable<File>): String {
+            val digest = MessageDigest.getInstance("SHA-256")
+            for (codeSource in codeSources) {
+                val files = if (codeSource.isDirectory) {
+                    codeSource.walkTopDown().filter { it.isFile }.sortedBy { it.path }.toList()
+                } else {
+                    listOf(codeSource)
+                }
+                for (file in files) {
+                    digest.update(file.toRelativeString(codeSource).toByteArray(Charsets.UTF_8))
+                    digest.update(0.toByte())
+                    digest.update(file.readBytes())
+                }
+            }
+            return digest.digest().joinToString("") { "%02x".format(it) }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.jpsg
+
+import org.slf4j.LoggerFactory
+import java.io.File
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit.NANOSECONDS
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+
+/**
+ * Progress and per-template expansion times of a single [Generator.generate] run. Updated
+ * concurrently from generation tasks.
+ */
+internal class GenerationMetrics(private val totalFiles: Int) {
+
+    private val startNanos = System.nanoTime()
+    private val doneFiles = AtomicInteger()
+    private val writtenFiles = AtomicInteger()
+    private val templateNanos = ConcurrentHashMap<File, AtomicLong>()
+    private val templateFiles = ConcurrentHashMap<File, AtomicInteger>()
+
+    fun fileGenerated(template: File, expansionNanos: Long, written: Boolean) {
+        templateNanos.putIfAbsent(template, AtomicLong())
+        templateNanos[template]!!.addAndGet(expansionNanos)
+        templateFiles.putIfAbsent(template, AtomicInteger())
+        templateFiles[template]!!.incrementAndGet()
+        if (written)
+            writtenFiles.incrementAndGet()
+        val done = doneFiles.incrementAndGet()
+        // log each 10% of progress
+        if (done * 10L / totalFiles != (done - 1) * 10L / totalFiles) {
+            log.info("Generated {}/{} files ({}%)", done, totalFiles, done * 100L / totalFiles)
+        }
+    }
+
+    fun log(upToDateTemplates: Int) {
+        val wallMillis = NANOSECONDS.toMillis(System.nanoTime() - startNanos)
+        log.info("Generated {} files from {} templates in {} ms: {} written, {} unchanged; " +
+                "{} templates up to date",
+                doneFiles.get(), templateNanos.size, wallMillis, writtenFiles.get(),
+                doneFiles.get() - writtenFiles.get(), upToDateTemplates)
+        if (!log.isInfoEnabled || templateNanos.isEmpty())
+            return
+        // Expansion time of a template is summed over all files generated from it, possibly in
+        // parallel, so it could exceed the wall time
+        val slowest = templateNanos.entries.sortedByDescending { it.value.get() }
+        for (e in slowest.subList(0, Math.min(SLOWEST_TEMPLATES_TO_LOG, slowest.size))) {
+            log.info("  {} ms expanding {} ({} files)",
+                    NANOSECONDS.toMillis(e.value.get()), e.key, templateFiles[e.key]!!.get())
+        }
+    }
+
+    companion object {
+        private val log = LoggerFactory.getLogger(GenerationMetrics::class.java)
+
+        private const val SLOWEST_TEMPLATES_TO_LOG = 10
+    }
+}
@@ -78,6 +78,8 @@ class Generator {
 
     private var firstProcessor: TemplateProcessor? = null
 
+    private var cacheFile: File? = null
+
     fun setObjectIdStyle(objectIdStyle: ObjectType.IdentifierStyle): Generator {
         this.objectIdStyle = objectIdStyle
         return this
@@ -196,6 +198,36 @@ class Generator {
         return target!!
     }
 
+    /**
+     * Sets the file, in which the generator records hashes of the expanded templates and the files
+     * generated from them. If neither a template nor the generator configuration has changed since
+     * the previous generation, the template is not expanded again. The cache file shouldn't be
+     * placed in the target dir.
+     */
+    fun setCacheFile(cacheFile: File?): Generator {
+        this.cacheFile = cacheFile
+        return this
+    }
+
+    fun getCacheFile(): File? {
+        return cacheFile
+    }
+
+    /**
+     * Returns a hash of the generator configuration and of the code of JPSG and the template
+     * processors, which the outputs depend on in addition to the template contents. Any change
+     * in a processor implementation, e. g. in method generators, called by the processor,
+     * changes the fingerprint, and all templates are expanded again.
+     */
+    fun configurationFingerprint(): String {
+        val processorNames = processors.map { it.javaClass.name }.sorted()
+        val code = GenerationCache.codeHash(
+                processors.map { it.javaClass } + Generator::class.java)
+        return GenerationCache.hash(code, objectIdStyle.name, defaultTypes.toString(),
+                with.toString(), never.toString(), included.toString(), excluded.toString(),
+                processorNames.toString())
+    }
+
     @Throws(IOException::class)
     fun generate() {
         log.debug("Generator source: {}", source)
@@ -210,47 +242,65 @@ class Generator {
             throw IllegalArgumentException("$target generation destination should be a dir")
         }
         init()
+        val cache = cacheFile?.let { GenerationCache(it) }
+        cache?.load()
+        val fingerprint = configurationFingerprint()
+
+        val templates = ArrayList<File>()
         if (source!!.isDirectory) {
-            class DirGeneration(val dir: File) : Callable<Unit> {
-
-                override fun call() {
-                    try {
-                        val subTasks = ArrayList<ForkJoinTaskShim<Unit>>()
-                        val targetDir = target!!.resolve(dir.relativeTo(this@Generator.source!!))
-                        try {
-                            dir.copyTo(targetDir)
-                        } catch (e: IOException) {
-                            if (!targetDir.isDirectory)
-                                throw e
-                        }
+            source!!.walkTopDown().forEach { f ->
+                if (f.isDirectory) {
+                    target!!.resolve(f.relativeTo(source!!)).mkdirs()
+                } else {
+                    templates.add(f)
+                }
+            }
+        } else {
+            templates.add(source!!)
+        }
 
-                        dir.walkTopDown().onEnter { d ->
-                            if (dir != d) {
-                                subTasks.add(ForkJoinTasks.adapt(DirGeneration(d)))
-                                false
-                            } else {
-                                true
-                            }
-                        }.filter { it.isFile }.forEach { f ->
-                            val targetFile = target!!.resolve(f.relativeTo(source!!))
-                            if (f.lastModified() < targetFile.lastModified()) {
-                                log.info("File {} is up to date, not processing source",
-                                        targetFile)
-                            }
-                            subTasks.add(ForkJoinTasks.adapt(Callable<Unit> {
-                                doGenerate(f, File(targetFile.parent))
-                            }))
-                        }
-                        ForkJoinTasks.invokeAll(subTasks)
-                    } catch (e: IOException) {
-                        throw RuntimeException(e)
-                    }
+        ForkJoinTasks.adapt(Callable<Unit> {
+            // Templates are read and their headers are parsed in parallel, then all
+            // (template, target context) pairs are expanded as independent tasks, so that
+            // a directory or a template with many target contexts doesn't hold up others
+            val prepareTasks = templates.map { f ->
+                ForkJoinTasks.adapt(Callable<TemplateGeneration?> {
+                    prepareTemplate(f, cache, fingerprint)
+                })
+            }
+            ForkJoinTasks.invokeAll(prepareTasks)
+            val generations = prepareTasks.mapNotNull { it.get() }
+
+            val metrics = GenerationMetrics(generations.sumBy { it.targets.size })
+            val contextTasks = ArrayList<ForkJoinTaskShim<Unit>>()
+            for (generation in generations) {
+                for (i in generation.targets.indices) {
+                    contextTasks.add(ForkJoinTasks.adapt(Callable<Unit> {
+                        generateContext(generation, i, metrics)
+                    }))
+                }
+            }
+            ForkJoinTasks.invokeAll(contextTasks)
+            metrics.log(templates.size - generations.size)
 
+            if (cache != null) {
+                for (generation in generations) {
+                    val outputs = generation.generatedFiles.map { relativePath(it, target!!) }
+                    deleteOutputs(cache.put(generation.templatePath, generation.hash!!, outputs))
                 }
+                val templatePaths = templates.map { relativePath(it, source!!) }.toSet()
+                deleteOutputs(cache.retainTemplates(templatePaths))
+                cache.save()
+            }
+        }).forkAndGet()
+    }
+
+    private fun deleteOutputs(outputs: List<String>) {
+        for (output in outputs) {
+            val file = target!!.resolve(output)
+            if (file.isFile && file.delete()) {
+                log.info("Deleted stale: {}", file)
             }
-            ForkJoinTasks.adapt(DirGeneration(source!!)).forkAndGet()
-        } else {
-            ForkJoinTasks.adapt(Callable<Unit> { doGenerate(source!!, target!!) }).forkAndGet()
         }
     }
 
@@ -298,14 +348,43 @@ class Generator {
         firstProcessor = processors[processors.size - 1]
     }
 
+    /**
+     * A template with parsed file-level dimensions and condition, and the target contexts to
+     * generate files for.
+     */
+    private class TemplateGeneration(
+            val sourceFile: File, val templatePath: String, val hash: String?,
+            val mainContext: Context, val content: String) {
+        val targets = ArrayList<Context>()
+        val generatedFiles = ArrayList<File>()
+    }
+
+    /**
+     * Returns `null` if the template is up to date according to the cache.
+     */
     @Throws(IOException::class)
-    private fun doGenerate(sourceFile: File, targetDir: File) {
+    private fun prepareTemplate(sourceFile: File, cache: GenerationCache?,
+                                fingerprint: String): TemplateGeneration? {
         setCurrentGenerator(this)
         setCurrentSourceFile(sourceFile)
+        var rawContent = sourceFile.readText()
+        val templatePath = relativePath(sourceFile, source!!)
+        var hash: String? = null
+        if (cache != null) {
+            hash = GenerationCache.hash(fingerprint, templatePath, rawContent)
+            if (cache.isUpToDate(templatePath, hash, target!!)) {
+                log.info("Template {} is up to date, not processing", sourceFile)
+                return null
+            }
+        }
         log.info("Processing file: {}", sourceFile)
+        val targetDir = if (source!!.isDirectory) {
+            target!!.resolve(sourceFile.relativeTo(source!!)).parentFile
+        } else {
+            target!!
+        }
         val sourceFileName = sourceFile.name
         var targetDims = dimensionsParser!!.parseClassName(sourceFileName)
-        var rawContent = sourceFile.readText()
         val fileDimsM = CONTEXT_START_P.matcher(rawContent)
         if (fileDimsM.find() && fileDimsM.start() == 0) {
             targetDims = dimensionsParser!!.parseForContext(
@@ -324,9 +403,8 @@ class Generator {
                     rawContent, fileCondM.start())
             rawContent = rawContent.substring(fileCondM.end()).trim({ it <= ' ' }) + "\n"
         }
-        val content = rawContent
 
-        val contextGenerationTasks = ArrayList<ForkJoinTaskShim<Unit>>()
+        val generation = TemplateGeneration(sourceFile, templatePath, hash, mainContext, rawContent)
         for (tc in targetContexts) {
             if (!checkContext(tc)) {
                 log.debug("Context filtered by generator: {}", tc)
@@ -338,28 +416,39 @@ class Generator {
                 continue
             }
             val generatedFileName = generate(mainContext, target, sourceFileName)
-            val generatedFile = targetDir.resolve(generatedFileName)
-            contextGenerationTasks.add(ForkJoinTasks.adapt(Callable<Unit> {
-                setCurrentGenerator(this@Generator)
-                setCurrentSourceFile(sourceFile)
-                val generatedContent = generate(mainContext, target, content)
-                if (generatedFile.exists()) {
-                    if (generatedFile.isDirectory) {
-                        throw IllegalStateException(
-                                "$generatedFileName in $targetDir is a directory, " +
-                                        "$mainContext, $target, $sourceFileName")
-                    }
-                    val targetContent = generatedFile.readText()
-                    if (generatedContent == targetContent) {
-                        log.warn("Already generated: {}", generatedFileName)
-                        return@Callable
-                    }
-                }
-                writeFile(generatedFile, generatedContent)
-                log.info("Wrote: {}", generatedFileName)
-            }))
+            generation.targets.add(target)
+            generation.generatedFiles.add(targetDir.resolve(generatedFileName))
         }
-        ForkJoinTasks.invokeAll(contextGenerationTasks)
+        return generation
+    }
+
+    @Throws(IOException::class)
+    private fun generateContext(generation: TemplateGeneration, i: Int,
+                                metrics: GenerationMetrics) {
+        val sourceFile = generation.sourceFile
+        setCurrentGenerator(this)
+        setCurrentSourceFile(sourceFile)
+        val target = generation.targets[i]
+        val generatedFile = generation.generatedFiles[i]
+        val startNanos = System.nanoTime()
+        val generatedContent = generate(generation.mainContext, target, generation.content)
+        val expansionNanos = System.nanoTime() - startNanos
+        if (generatedFile.exists()) {
+            if (generatedFile.isDirectory) {
+                throw IllegalStateException(
+                        "${generatedFile.name} in ${generatedFile.parent} is a directory, " +
+                                "${generation.mainContext}, $target, ${sourceFile.name}")
+            }
+            val targetContent = generatedFile.readText()
+            if (generatedContent == targetContent) {
+                log.info("Up to date, not rewriting: {}", generatedFile.name)
+                metrics.fileGenerated(sourceFile, expansionNanos, written = false)
+                return
+            }
+        }
+        writeFile(generatedFile, generatedContent)
+        log.info("Wrote: {}", generatedFile.name)
+        metrics.fileGenerated(sourceFile, expansionNanos, written = true)
     }
 
     fun generate(sourceFile: File, rawContent: String): Map<File, String> {
@@ -609,6 +698,12 @@ class Generator {
     companion object {
         private val log = LoggerFactory.getLogger(Generator::class.java)
 
+        private fun relativePath(file: File, base: File): String {
+            if (file == base)
+                return file.name
+            return file.relativeTo(base).path.replace(File.separatorChar, '/')
+        }
+
         private val currentSource = ThreadLocal<File>()
         fun setCurrentSourceFile(source: File) {
             currentSource.set(source)
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.jpsg
+
+import org.junit.Assert.*
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+class GenerationCacheTest {
+
+    @get:Rule
+    val tmp = TemporaryFolder()
+
+    private fun generate(source: File, target: File, cacheFile: File) {
+        Generator().setDefaultTypes("int|long")
+                .setSource(source).setTarget(target).setCacheFile(cacheFile)
+                .generate()
+    }
+
+    @Test
+    fun cacheTest() {
+        val source = tmp.newFolder("source")
+        val target = tmp.newFolder("target")
+        val cacheFile = tmp.root.resolve("cache.txt")
+        val template = source.resolve("CharFoo.java")
+        template.writeText("class CharFoo {}\n")
+
+        generate(source, target, cacheFile)
+        assertEquals("class IntFoo {}\n", target.resolve("IntFoo.java").readText())
+        assertEquals("class LongFoo {}\n", target.resolve("LongFoo.java").readText())
+
+        // unchanged template is not expanded again
+        target.resolve("IntFoo.java").writeText("stale")
+        generate(source, target, cacheFile)
+        assertEquals("stale", target.resolve("IntFoo.java").readText())
+
+        // missing output makes the template expanded again
+        target.resolve("LongFoo.java").delete()
+        generate(source, target, cacheFile)
+        assertEquals("class IntFoo {}\n", target.resolve("IntFoo.java").readText())
+        assertEquals("class LongFoo {}\n", target.resolve("LongFoo.java").readText())
+
+        template.writeText("interface CharFoo {}\n")
+        generate(source, target, cacheFile)
+        assertEquals("interface IntFoo {}\n", target.resolve("IntFoo.java").readText())
+
+        // outputs of deleted templates are deleted
+        template.delete()
+        generate(source, target, cacheFile)
+        assertFalse(target.resolve("IntFoo.java").exists())
+        assertFalse(target.resolve("LongFoo.java").exists())
+    }
+
+    @Test
+    fun codeSourcesHashTest() {
+        val classes = tmp.newFolder("classes")
+        val processor = classes.resolve("Processor.class")
+        processor.writeBytes(byteArrayOf(1, 2, 3))
+        val hash = GenerationCache.codeSourcesHash(listOf(classes))
+        assertEquals(hash, GenerationCache.codeSourcesHash(listOf(classes)))
+
+        // a changed class file in the code source changes the hash
+        processor.writeBytes(byteArrayOf(1, 2, 4))
+        assertNotEquals(hash, GenerationCache.codeSourcesHash(listOf(classes)))
+    }
+
+    @Test
+    fun codeHashTest() {
+        val generatorHash = GenerationCache.codeHash(listOf(Generator::class.java))
+        assertEquals(generatorHash, GenerationCache.codeHash(listOf(Generator::class.java)))
+        assertNotEquals(generatorHash,
+                GenerationCache.codeHash(listOf(GenerationCacheTest::class.java)))
+    }
+}
@@ -146,6 +146,37 @@ public class GeneratorTask extends ConventionTask {
         return g.getTarget();
     }
 
+    public GeneratorTask setCacheFile(File cacheFile) {
+        g.setCacheFile(cacheFile);
+        return this;
+    }
+
+    public GeneratorTask setCacheFile(Path cacheFile) {
+        g.setCacheFile(cacheFile.toFile());
+        return this;
+    }
+
+    public GeneratorTask setCacheFile(String cacheFile) {
+        g.setCacheFile(new File(cacheFile));
+        return this;
+    }
+
+    @OutputFile
+    @Optional
+    public File getCacheFile() {
+        return g.getCacheFile();
+    }
+
+    /**
+     * Makes the task out of date when the generator configuration (default context, excluded
+     * types and conditions, template processors) or the code of JPSG or the template processors
+     * changes, not only when the templates change.
+     */
+    @Input
+    public String getConfigurationFingerprint() {
+        return g.configurationFingerprint();
+    }
+
     @TaskAction
     public void generate() throws IOException {
         g.generate();
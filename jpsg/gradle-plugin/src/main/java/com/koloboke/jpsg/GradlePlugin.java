@@ -130,6 +130,9 @@ public final class GradlePlugin implements Plugin<ProjectInternal> {
                 project.getBuildDir(), sourceSet.getName(), f.generatedPart());
         gen.setTarget(target);
         f.getSourceDirectorySet(sourceSet).srcDir(new File(target));
+        // the cache is kept outside the output directory, not to be compiled or packaged
+        gen.setCacheFile(String.format("%s/jpsg-cache/%s/%s.txt",
+                project.getBuildDir(), sourceSet.getName(), f.generatedPart()));
 
         // 5) register fact that jpsg should be run before compiling
         project.getTasks().getByName(f.dependentTaskName(sourceSet)).dependsOn(taskName);
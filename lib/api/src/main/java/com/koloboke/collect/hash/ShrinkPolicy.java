@@ -0,0 +1,179 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.koloboke.collect.hash;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * A policy of automatic shrinking of mutable hash containers, when elements (entries)
+ * are removed from them. See {@link HashConfig#withShrinkPolicy(ShrinkPolicy)}.
+ *
+ * <p>A hash container is considered for shrinking, when its
+ * {@linkplain HashContainer#currentLoad() load} falls below
+ * the {@linkplain HashConfig#getMinLoad() min load} on removal of an element by key. A shrink
+ * rehashes the container to the {@linkplain HashConfig#getTargetLoad() target load}, so
+ * the container should lose a substantial part of its elements to be shrunk again, or gain
+ * a substantial number of elements to grow, that prevents grow -- shrink thrashing. The policy
+ * could further delay shrinking:
+ *
+ * <ul>
+ *     <li>until the load stays below the min load for the given number of
+ *     {@linkplain #withRemovals(int) removals} in a row,</li>
+ *
+ *     <li>until the load stays below the min load for the given
+ *     {@linkplain #withDelay(long, TimeUnit) time},</li>
+ *
+ *     <li>until shrinking frees at least the given number of
+ *     {@linkplain #withMinReclaimedSlots(int) slots}, i. e. small containers are never shrunk,
+ *     only those which waste much memory.</li>
+ * </ul>
+ *
+ * <p>All conditions should hold for a container to shrink. Removals via iterators, cursors
+ * and bulk operations like {@code removeIf()} and {@link HashContainer#clear()} don't
+ * shrink containers, because the table can't be replaced while it is traversed.
+ * {@link HashContainer#shrink()} could be called after them manually.
+ *
+ * <p>Shrink policy is immutable, all "setters" return a new independent policy object with
+ * the corresponding field changed.
+ *
+ * @see HashConfig#getShrinkPolicy()
+ */
+@AutoValue
+public abstract class ShrinkPolicy {
+
+    private static final ShrinkPolicy BELOW_MIN_LOAD = create(1, 0L, 0);
+
+    /**
+     * Returns a shrink policy which shrinks a container immediately, when its load falls below
+     * the min load.
+     *
+     * @return the shrink policy with 1 removal, zero delay and zero min reclaimed slots
+     */
+    @Nonnull
+    public static ShrinkPolicy belowMinLoad() {
+        return BELOW_MIN_LOAD;
+    }
+
+    private static ShrinkPolicy create(int removals, long delayNanos, int minReclaimedSlots) {
+        if (removals < 1) {
+            throw new IllegalArgumentException(
+                    "Removals must be positive, " + removals + " given.");
+        }
+        if (delayNanos < 0L) {
+            throw new IllegalArgumentException(
+                    "Delay must be non-negative, " + delayNanos + " ns given.");
+        }
+        if (minReclaimedSlots < 0) {
+            throw new IllegalArgumentException("Min reclaimed slots must be non-negative, " +
+                    minReclaimedSlots + " given.");
+        }
+        return new AutoValue_ShrinkPolicy(removals, delayNanos, minReclaimedSlots);
+    }
+
+    /**
+     * Package-private constructor to prevent subclassing from outside of the package
+     */
+    ShrinkPolicy() {}
+
+    /**
+     * Returns the number of removals in a row, during which a container's load should stay below
+     * the min load, before the container is shrunk.
+     *
+     * <p>The default is 1.
+     *
+     * @return the number of removals, a positive value
+     * @see #withRemovals(int)
+     */
+    public abstract int getRemovals();
+
+    /**
+     * Returns a copy of this shrink policy with the number of removals set to the given value.
+     *
+     * <p>Allows to keep memory of a container, which is drained and then filled again
+     * in a short loop.
+     *
+     * @param removals the new number of removals, a positive value
+     * @return a copy of this shrink policy with the number of removals set to the given value
+     * @throws IllegalArgumentException if the given number of removals is not positive
+     * @see #getRemovals()
+     */
+    public final ShrinkPolicy withRemovals(int removals) {
+        return create(removals, getDelayNanos(), getMinReclaimedSlots());
+    }
+
+    /**
+     * Returns the time in nanoseconds, during which a container's load should stay below
+     * the min load, before the container is shrunk. The time is checked on removals only,
+     * an idle container is not shrunk.
+     *
+     * <p>The default is 0.
+     *
+     * @return the delay in nanoseconds, a non-negative value
+     * @see #withDelay(long, TimeUnit)
+     */
+    public abstract long getDelayNanos();
+
+    /**
+     * Returns a copy of this shrink policy with the delay set to the given duration.
+     *
+     * <p>Allows to keep memory of a container, which load periodically goes down and up.
+     * Non-zero delay makes each removal from a container with load below the min load
+     * call {@link System#nanoTime()}.
+     *
+     * @param delay the new delay, a non-negative value
+     * @param unit the time unit of the {@code delay} argument
+     * @return a copy of this shrink policy with the delay set to the given duration
+     * @throws IllegalArgumentException if the given delay is negative
+     * @see #getDelayNanos()
+     */
+    public final ShrinkPolicy withDelay(long delay, @Nonnull TimeUnit unit) {
+        return create(getRemovals(), unit.toNanos(delay), getMinReclaimedSlots());
+    }
+
+    /**
+     * Returns the minimum number of slots, which a shrink of a container should free. Memory
+     * occupied by a slot depends on the container's key and value types, from 1 byte in
+     * {@code byte} sets to 16 bytes in {@code long}-to-{@code long} maps.
+     *
+     * <p>The default is 0.
+     *
+     * @return the minimum number of reclaimed slots, a non-negative value
+     * @see #withMinReclaimedSlots(int)
+     */
+    public abstract int getMinReclaimedSlots();
+
+    /**
+     * Returns a copy of this shrink policy with the minimum number of reclaimed slots set
+     * to the given value.
+     *
+     * <p>Allows to avoid rehashing small containers, shrinking of which doesn't save much memory.
+     *
+     * @param minReclaimedSlots the new minimum number of reclaimed slots, a non-negative value
+     * @return a copy of this shrink policy with the minimum number of reclaimed slots set
+     *         to the given value
+     * @throws IllegalArgumentException if the given number of slots is negative
+     * @see #getMinReclaimedSlots()
+     */
+    public final ShrinkPolicy withMinReclaimedSlots(int minReclaimedSlots) {
+        return create(getRemovals(), getDelayNanos(), minReclaimedSlots);
+    }
+}
@@ -0,0 +1,129 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect;
+
+import javax.annotation.Nonnull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+
+/**
+ * An optional extension of {@link CharCollection}, which transfers the elements of
+ * the collection in bulk, to and from buffers and channels, without an intermediate array.
+ * It isn't a part of the {@code CharCollection} interface, so that the existing implementations
+ * of {@code CharCollection} remain valid. All {@code char} collections, provided by the library,
+ * including key and value views of maps, implement this interface, but other collections
+ * might not, so the availability of these operations should be checked via
+ * {@code instanceof}, e. g. <pre>{@code
+ * if (collection instanceof CharBulkTransfer) {
+ *     ((CharBulkTransfer) collection).toBuffer(buffer);
+ * } else {
+ *     buffer.put(collection.toCharArray());
+ * }}</pre>
+ */
+public interface CharBulkTransfer extends CharCollection {
+
+    /**
+     * Writes all elements of this collection into the specified buffer, starting at its current
+     * position, and advances the position by the size of this collection. Unlike
+     * {@link #toArray(char[])}, this method doesn't allocate an intermediate array, so it could
+     * be used to export the collection directly to a view of a {@code ByteBuffer}, e. g. a
+     * direct one.
+     *
+     * <p>If this collection makes any guarantees as to what order its elements
+     * are returned by its iterator, this method must write the elements
+     * in the same order.
+     *
+     * @param buffer the buffer into which the elements of this collection are to be written
+     * @return the specified buffer
+     * @throws java.nio.BufferOverflowException if there are fewer than {@link #size()} elements
+     *         remaining in the buffer, in this case the buffer is not modified
+     * @throws java.nio.ReadOnlyBufferException if the buffer is read-only
+     * @throws NullPointerException if the specified buffer is {@code null}
+     * @see #toArray(char[])
+     */
+    @Nonnull CharBuffer toBuffer(@Nonnull CharBuffer buffer);
+
+    /**
+     * Writes all elements of this collection into the specified byte buffer, starting at its
+     * current position, in the buffer's byte order, and advances the position by
+     * {@code size() * Character.SIZE / 8}. Elements are written straight from
+     * the internal storage of this collection, e. g. a direct buffer could be filled with
+     * the collection contents without any intermediate copy.
+     *
+     * <p>If this collection makes any guarantees as to what order its elements
+     * are returned by its iterator, this method must write the elements
+     * in the same order.
+     *
+     * @param buffer the buffer into which the elements of this collection are to be written
+     * @throws java.nio.BufferOverflowException if there are not enough bytes remaining
+     *         in the buffer to write all elements, in this case the buffer is not modified
+     * @throws java.nio.ReadOnlyBufferException if the buffer is read-only
+     * @throws NullPointerException if the specified buffer is {@code null}
+     * @see #readFrom(ByteBuffer)
+     */
+    void writeTo(@Nonnull ByteBuffer buffer);
+
+    /**
+     * Writes all elements of this collection to the specified channel, in big-endian byte order.
+     * Elements are transferred in chunks through a small direct buffer, the collection is never
+     * copied to an intermediate array. The channel is expected to be in blocking mode.
+     *
+     * @param channel the channel to which the elements of this collection are to be written
+     * @throws IOException if an I/O error occurs
+     * @throws NullPointerException if the specified channel is {@code null}
+     * @see #readFrom(ReadableByteChannel)
+     */
+    void writeTo(@Nonnull WritableByteChannel channel) throws IOException;
+
+    /**
+     * Adds all complete elements remaining in the specified byte buffer to this collection,
+     * reading them in the buffer's byte order, as if by calling {@link #add(char)} for each.
+     * If the number of remaining bytes is not a multiple of the element size, the trailing bytes
+     * of an incomplete element are left in the buffer.
+     *
+     * @param buffer the buffer from which the elements are to be read
+     * @return {@code true} if this collection changed as a result of the call
+     * @throws UnsupportedOperationException if this collection doesn't support
+     *         the {@code add} operation
+     * @throws NullPointerException if the specified buffer is {@code null}
+     * @see #writeTo(ByteBuffer)
+     */
+    boolean readFrom(@Nonnull ByteBuffer buffer);
+
+    /**
+     * Adds all elements, read from the specified channel in big-endian byte order until
+     * the end of the stream, to this collection, as if by calling {@link #add(char)} for each.
+     * Elements are transferred in chunks through a small direct buffer. The channel is expected
+     * to be in blocking mode.
+     *
+     * @param channel the channel from which the elements are to be read
+     * @return {@code true} if this collection changed as a result of the call
+     * @throws java.io.EOFException if the stream ends in the middle of an element
+     * @throws IOException if an I/O error occurs
+     * @throws UnsupportedOperationException if this collection doesn't support
+     *         the {@code add} operation
+     * @throws NullPointerException if the specified channel is {@code null}
+     * @see #writeTo(WritableByteChannel)
+     */
+    boolean readFrom(@Nonnull ReadableByteChannel channel) throws IOException;
+}
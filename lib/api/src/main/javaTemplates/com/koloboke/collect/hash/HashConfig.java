@@ -79,11 +79,13 @@ public abstract class HashConfig {
     private static final double DEFAULT_TARGET_LOAD = 0.5;
     private static final double DEFAULT_GROWTH_FACTOR = 2.0;
     private static final HashConfig DEFAULT = create(
-            DEFAULT_MIN_LOAD, DEFAULT_TARGET_LOAD, DEFAULT_MAX_LOAD, DEFAULT_GROWTH_FACTOR, null);
+            DEFAULT_MIN_LOAD, DEFAULT_TARGET_LOAD, DEFAULT_MAX_LOAD, DEFAULT_GROWTH_FACTOR, null,
+            0.0, null);
 
     /**
-     * Returns a hash config with 0.(3) min load, 0.5 target load, 0.(6) max load, 2.0 growth factor
-     * and {@code null} shrink condition.
+     * Returns a hash config with 0.(3) min load, 0.5 target load, 0.(6) max load,
+     * 2.0 growth factor, {@code null} shrink condition, adaptive load disabled
+     * and {@code null} shrink policy.
      *
      * @return the default hash config
      */
@@ -96,7 +98,8 @@ public abstract class HashConfig {
      * Returns a new hash config with the given loads and the growth factor set to
      * {@code maxLoad / minLoad}.
      *
-     * <p>The shrink condition in the returned hash config is left default, i. e. {@code null}.
+     * <p>The shrink condition and the shrink policy in the returned hash config are left default,
+     * i. e. {@code null}, adaptive load is disabled.
      *
      * @param minLoad the min load, should be in the {@code [0.0, targetLoad]} range
      * @param targetLoad the target load, should be in the {@code [minLoad, maxLoad]} range
@@ -107,12 +110,13 @@ public abstract class HashConfig {
      */
     @Nonnull
     public static HashConfig fromLoads(double minLoad, double targetLoad, double maxLoad) {
-        return create(minLoad, targetLoad, maxLoad, maxLoad / minLoad, null);
+        return create(minLoad, targetLoad, maxLoad, maxLoad / minLoad, null, 0.0, null);
     }
 
     private static HashConfig create(
             double minLoad, double targetLoad, double maxLoad, double growthFactor,
-            @Nullable com.koloboke.function.Predicate<HashContainer> shrinkCondition) {
+            @Nullable com.koloboke.function.Predicate<HashContainer> shrinkCondition,
+            double targetProbeLength, @Nullable ShrinkPolicy shrinkPolicy) {
         if (Double.isNaN(targetLoad) || targetLoad <= 0.0 || targetLoad >= 1.0) {
             throw new IllegalArgumentException("Target load must be in (0.0, 1.0) range, " +
                     targetLoad + " given.");
@@ -132,8 +136,14 @@ public abstract class HashConfig {
                     "Growth factor must be in [1.0, max load / min load = %f]  range, %f given.",
                     maxLoad / minLoad, growthFactor));
         }
+        if (Double.isNaN(targetProbeLength) || Double.isInfinite(targetProbeLength) ||
+                (targetProbeLength != 0.0 && targetProbeLength < 1.0)) {
+            throw new IllegalArgumentException("Target probe length must be 0.0 or " +
+                    "in [1.0, +Infinity) range, " + targetProbeLength + " given.");
+        }
         return new AutoValue_HashConfig(minLoad, targetLoad,
-                maxLoad, growthFactor, shrinkCondition);
+                maxLoad, growthFactor, shrinkCondition, targetProbeLength,
+                shrinkPolicy);
     }
 
 
@@ -170,7 +180,7 @@ public abstract class HashConfig {
      */
     public final HashConfig withMinLoad(double minLoad) {
         return create(minLoad, getTargetLoad(), getMaxLoad(), getGrowthFactor(),
-                getShrinkCondition());
+                getShrinkCondition(), getTargetProbeLength(), getShrinkPolicy());
     }
 
     /**
@@ -200,7 +210,7 @@ public abstract class HashConfig {
      */
     public final HashConfig withTargetLoad(double targetLoad) {
         return create(getMinLoad(), targetLoad, getMaxLoad(), getGrowthFactor(),
-                getShrinkCondition());
+                getShrinkCondition(), getTargetProbeLength(), getShrinkPolicy());
     }
 
     /**
@@ -228,7 +238,7 @@ public abstract class HashConfig {
      */
     public final HashConfig withMaxLoad(double maxLoad) {
         return create(getMinLoad(), getTargetLoad(), maxLoad, getGrowthFactor(),
-                getShrinkCondition());
+                getShrinkCondition(), getTargetProbeLength(), getShrinkPolicy());
     }
 
     /**
@@ -258,7 +268,7 @@ public abstract class HashConfig {
      */
     public final HashConfig withGrowthFactor(double growthFactor) {
         return create(getMinLoad(), getTargetLoad(), getMaxLoad(), growthFactor,
-                getShrinkCondition());
+                getShrinkCondition(), getTargetProbeLength(), getShrinkPolicy());
     }
 
     /**
@@ -304,6 +314,88 @@ public abstract class HashConfig {
      */
     public final HashConfig withShrinkCondition(
             @Nullable com.koloboke.function.Predicate<HashContainer> condition) {
-        return create(getMinLoad(), getTargetLoad(), getMaxLoad(), getGrowthFactor(), condition);
+        return create(getMinLoad(), getTargetLoad(), getMaxLoad(), getGrowthFactor(), condition,
+                getTargetProbeLength(), getShrinkPolicy());
+    }
+
+    /**
+     * Returns the <em>target probe length</em> of this hash config, or {@code 0.0} if adaptive
+     * load is disabled.
+     *
+     * <p>If the target probe length is positive, mutable and updatable hash containers tune
+     * the load they grow at themselves. Each time a container grows, it takes the average
+     * number of slots inspected by insertions of keys since the previous rehash, i. e. the probe
+     * length of these keys, counted while they are inserted. If it is greater than
+     * the target probe length, the container grows at a lower load afterwards, sacrificing
+     * memory for speed, down to the {@linkplain #getTargetLoad() target load}, but not lower than
+     * {@linkplain #getMinLoad() min load} * {@linkplain #getGrowthFactor() growth factor}, so that
+     * the grown container isn't sparser than the min load.
+     * If it is less, the container grows at a higher load, up to
+     * the {@linkplain #getMaxLoad() max load}, because its keys are distributed well enough
+     * to keep the table dense.
+     *
+     * <p>The default is {@code 0.0}: a container always grows when its load reaches the max load.
+     *
+     * @return the target probe length, {@code 0.0} or a value
+     *         in the [{@code 1.0}, {@code +Infinity}) range
+     * @see #withTargetProbeLength(double)
+     */
+    public abstract double getTargetProbeLength();
+
+    /**
+     * Returns a copy of this hash config with the target probe length set to the given value.
+     *
+     * <p>Target probe length allows hash containers to find the memory usage -- performance
+     * tradeoff appropriate for the actual keys, within the bounds set
+     * by the {@linkplain #getTargetLoad() target} and {@linkplain #getMaxLoad() max} loads.
+     * Values in the [{@code 1.1}, {@code 2.0}] range are sensible, {@code 0.0} disables
+     * adaptive load.
+     *
+     * @param targetProbeLength the new target probe length, {@code 0.0} or a value
+     *                          in the [{@code 1.0}, {@code +Infinity}) range
+     * @return a copy of this hash config with the target probe length set to the given value
+     * @throws IllegalArgumentException if the given target probe length is not {@code 0.0}
+     *         and is not in the [{@code 1.0}, {@code +Infinity}) range
+     * @see #getTargetProbeLength()
+     */
+    public final HashConfig withTargetProbeLength(double targetProbeLength) {
+        return create(getMinLoad(), getTargetLoad(), getMaxLoad(), getGrowthFactor(),
+                getShrinkCondition(), targetProbeLength, getShrinkPolicy());
+    }
+
+    /**
+     * Returns the <em>shrink policy</em> of this hash config, which defines when mutable hash
+     * containers shrink automatically, as elements (entries) are removed from them.
+     *
+     * <p>{@code null} policy means that containers never shrink on removals. It is a default
+     * value.
+     *
+     * @return the shrink policy of this hash config
+     * @see #withShrinkPolicy(ShrinkPolicy)
+     * @see HashContainer#shrink()
+     */
+    @Nullable
+    public abstract ShrinkPolicy getShrinkPolicy();
+
+    /**
+     * Returns a copy of this hash config with the shrink policy set to the given policy.
+     *
+     * <p>Shrink policy allows containers to return memory, when their size spikes and then
+     * goes down. An example:
+     * <pre>{@code
+     * conf.withShrinkPolicy(ShrinkPolicy.belowMinLoad().withRemovals(1000))}</pre>
+     *
+     * <p>Unlike the {@linkplain #getShrinkCondition() shrink condition}, which is checked only
+     * after construction of a container, the shrink policy is checked when an element is removed
+     * from a container, if its load falls below the {@linkplain #getMinLoad() min load}.
+     * So the shrink policy doesn't slow down removals from containers with higher loads.
+     *
+     * @param shrinkPolicy the new shrink policy
+     * @return a copy of this hash config with the shrink policy set to the given policy
+     * @see #getShrinkPolicy()
+     */
+    public final HashConfig withShrinkPolicy(@Nullable ShrinkPolicy shrinkPolicy) {
+        return create(getMinLoad(), getTargetLoad(), getMaxLoad(), getGrowthFactor(),
+                getShrinkCondition(), getTargetProbeLength(), shrinkPolicy);
     }
 }
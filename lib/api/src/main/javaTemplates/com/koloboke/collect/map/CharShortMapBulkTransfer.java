@@ -0,0 +1,70 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.map;
+
+import javax.annotation.Nonnull;
+
+
+/**
+ * An optional extension of {@link CharShortMap}, which transfers the entries of the map
+ * in bulk. It isn't a part of the {@code CharShortMap} interface, so that the existing
+ * implementations of {@code CharShortMap} remain valid. All {@code CharShortMap}s, provided by
+ * the library, implement this interface, but other maps might not, so the availability of
+ * these operations should be checked via {@code instanceof}.
+ */
+public interface CharShortMapBulkTransfer extends CharShortMap {
+
+    /**
+     * Writes keys and values of all entries of this map into the specified arrays, the key and
+     * the value of each entry at the same index, starting from the given {@code offset}. Entries
+     * are written in the entry set iterator order. This is a column-wise alternative to iteration
+     * over the map, which doesn't involve per-entry calls of an action or a cursor.
+     *
+     * @param keyArray the array into which the keys of this map are to be written
+     * @param valueArray the array into which the values of this map are to be written
+     * @param offset the index in the arrays, at which the first entry is written
+     * @return the number of written entries, i. e. the size of this map
+     * @throws IndexOutOfBoundsException if {@code offset} is negative, or there are fewer than
+     *         {@link #size()} positions from {@code offset} to the end of any of the arrays,
+     *         in this case the arrays are not modified
+     * @throws NullPointerException if any of the specified arrays is {@code null}
+     * @see #drainTo(char[], short[], int)
+     */
+    int exportTo(@Nonnull char[] keyArray, @Nonnull short[] valueArray, int offset);
+
+    /**
+     * Writes keys and values of all entries of this map into the specified arrays, as
+     * {@link #exportTo(char[], short[], int)} does, and then removes all entries from this map.
+     *
+     * @param keyArray the array into which the keys of this map are to be written
+     * @param valueArray the array into which the values of this map are to be written
+     * @param offset the index in the arrays, at which the first entry is written
+     * @return the number of written and removed entries
+     * @throws IndexOutOfBoundsException if {@code offset} is negative, or there are fewer than
+     *         {@link #size()} positions from {@code offset} to the end of any of the arrays,
+     *         in this case neither the arrays nor this map are modified
+     * @throws NullPointerException if any of the specified arrays is {@code null}
+     * @throws UnsupportedOperationException if the {@code clear} operation
+     *         is not supported by this map
+     * @see #exportTo(char[], short[], int)
+     */
+    int drainTo(@Nonnull char[] keyArray, @Nonnull short[] valueArray, int offset);
+}
@@ -19,6 +19,8 @@ package com.koloboke.collect.hash;
 import com.koloboke.function.Predicate;
 import org.junit.Test;
 
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.assertEquals;
 
 
@@ -51,6 +53,27 @@ public class HashConfigTest {
             }
         });
         assertEquals(conf6, conf7.withShrinkCondition(shrinkCondition));
+
+        double targetProbeLength = conf7.getTargetProbeLength();
+        HashConfig conf8 = conf7.withTargetProbeLength(1.5);
+        assertEquals(conf7, conf8.withTargetProbeLength(targetProbeLength));
+
+        ShrinkPolicy shrinkPolicy = conf8.getShrinkPolicy();
+        HashConfig conf9 = conf8.withShrinkPolicy(ShrinkPolicy.belowMinLoad()
+                .withRemovals(10).withDelay(1, TimeUnit.SECONDS).withMinReclaimedSlots(1000));
+        assertEquals(conf8, conf9.withShrinkPolicy(shrinkPolicy));
+        assertEquals(ShrinkPolicy.belowMinLoad(), conf9.getShrinkPolicy().withRemovals(1)
+                .withDelay(0, TimeUnit.NANOSECONDS).withMinReclaimedSlots(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroShrinkRemovals() {
+        ShrinkPolicy.belowMinLoad().withRemovals(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTargetProbeLengthLessThanOne() {
+        HashConfig.getDefault().withTargetProbeLength(0.5);
     }
 
     @Test
@@ -59,10 +82,11 @@ public class HashConfigTest {
                 "HashConfig{" +
                         "getMinLoad=" + (1.0 / 3.0) + ", getTargetLoad=" + 0.5 + ", " +
                         "getMaxLoad=" + (2.0 / 3.0) + ", getGrowthFactor=" + 2.0 + ", " +
-                        "getShrinkCondition=null}",
+                        "getShrinkCondition=null, getTargetProbeLength=" + 0.0 + ", " +
+                        "getShrinkPolicy=null}",
                 HashConfig.getDefault().withMinLoad(1.0 / 3.0).withTargetLoad(0.5)
                         .withMaxLoad(2.0 / 3.0).withGrowthFactor(2.0).withShrinkCondition(null)
-                        .toString()
+                        .withTargetProbeLength(0.0).withShrinkPolicy(null).toString()
         );
     }
 }
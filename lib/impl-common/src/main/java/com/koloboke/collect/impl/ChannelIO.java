@@ -0,0 +1,121 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+
+/**
+ * Chunked transfer of primitive collections to and from byte channels. Elements are written
+ * to a direct buffer chunk, which is written to the channel whenever it is full, so that
+ * the whole collection is never copied to an intermediate array or buffer.
+ *
+ * <p>Each thread caches a single chunk, which is taken by {@link #acquireChunk()} and put back
+ * by {@link #releaseChunk} in a {@code finally} block, even if the transfer fails, so that
+ * transfers don't allocate direct memory on each call. If a nested transfer starts on the same
+ * thread while the chunk is taken, a new chunk is allocated and the cache simply keeps the last
+ * released one.
+ */
+public final class ChannelIO {
+
+    /** A multiple of the size of any primitive type */
+    public static final int CHUNK_BYTES = 8192;
+
+    private static final ThreadLocal<ByteBuffer[]> CACHED_CHUNK =
+            new ThreadLocal<ByteBuffer[]>() {
+                @Override
+                protected ByteBuffer[] initialValue() {
+                    return new ByteBuffer[1];
+                }
+            };
+
+    /**
+     * Takes the chunk cached by the current thread, or allocates a new one, if there is no chunk
+     * in the cache. Returns an empty direct buffer of {@link #CHUNK_BYTES} capacity, in big-endian
+     * byte order, ready to be filled and passed to {@link #write}.
+     */
+    public static ByteBuffer acquireChunk() {
+        ByteBuffer[] cache = CACHED_CHUNK.get();
+        ByteBuffer chunk = cache[0];
+        if (chunk != null) {
+            cache[0] = null;
+            chunk.clear();
+            return chunk;
+        }
+        return ByteBuffer.allocateDirect(CHUNK_BYTES);
+    }
+
+    /**
+     * Returns a chunk from {@link #acquireChunk()}, with no remaining bytes, ready to be passed
+     * to {@link #read}.
+     */
+    public static ByteBuffer acquireReadChunk() {
+        ByteBuffer chunk = acquireChunk();
+        chunk.limit(0);
+        return chunk;
+    }
+
+    /**
+     * Puts the given chunk, acquired by {@link #acquireChunk()} or {@link #acquireReadChunk()},
+     * back to the current thread's cache. The chunk must not be used after this call.
+     */
+    public static void releaseChunk(ByteBuffer chunk) {
+        CACHED_CHUNK.get()[0] = chunk;
+    }
+
+    /**
+     * Writes the bytes from the beginning to the position of the given chunk to the channel,
+     * and clears the chunk.
+     */
+    public static void write(WritableByteChannel channel, ByteBuffer chunk) throws IOException {
+        chunk.flip();
+        while (chunk.hasRemaining()) {
+            channel.write(chunk);
+        }
+        chunk.clear();
+    }
+
+    /**
+     * Compacts the given chunk, reads bytes from the channel until at least one element
+     * of the given size is available in the chunk or the end of the stream is reached,
+     * and flips the chunk.
+     *
+     * @return {@code false} if the end of the stream is reached and there are no more
+     *         elements in the chunk
+     * @throws EOFException if the stream ends in the middle of an element
+     */
+    public static boolean read(ReadableByteChannel channel, ByteBuffer chunk, int elemBytes)
+            throws IOException {
+        chunk.compact();
+        while (chunk.position() < elemBytes) {
+            if (channel.read(chunk) < 0) {
+                if (chunk.position() > 0)
+                    throw new EOFException("Stream ended in the middle of an element");
+                chunk.flip();
+                return false;
+            }
+        }
+        chunk.flip();
+        return true;
+    }
+
+    private ChannelIO() {}
+}
@@ -32,4 +32,23 @@ public interface Hash extends HashContainer {
     int removedSlots();
 
     int modCount();
+
+    /**
+     * Returns the number of rehashes, performed by this hash since construction.
+     */
+    int rehashCount();
+
+    /**
+     * Returns the total time spent in rehashes of this hash since construction, in nanoseconds.
+     */
+    long rehashNanos();
+
+    /**
+     * Scans the table and returns the snapshot of probe lengths, clusters, tombstones
+     * and rehash counters of this hash.
+     *
+     * <p>Takes time linear in {@link #capacity()}, and should be called from the thread
+     * which owns the hash, as well as any other bulk operation.
+     */
+    HashStats hashStats();
 }
@@ -23,19 +23,26 @@ import com.koloboke.collect.impl.Scaler;
 public final class HashConfigWrapper {
 
     private final HashConfig config;
-    private final Scaler minLoadInverse;
+    private final Scaler minLoad, minLoadInverse;
     private final Scaler targetLoadInverse;
+    private final double currentMaxLoad;
     private final Scaler maxLoad, maxLoadInverse;
     private final Scaler growthFactor;
 
     public HashConfigWrapper(HashConfig config) {
+        this(config, config.getMaxLoad());
+    }
+
+    private HashConfigWrapper(HashConfig config, double currentMaxLoad) {
         this.config = config;
+        // minLoad can be 0.0
+        minLoad = config.getMinLoad() > 0.0 ? Scaler.by(config.getMinLoad()) : null;
         minLoadInverse = Scaler.by(
-                // minLoad can be 0.0
                 config.getMinLoad() > 0.0 ? 1.0 / config.getMinLoad() : Double.MAX_VALUE);
         targetLoadInverse = Scaler.by(1.0 / config.getTargetLoad());
-        maxLoad = Scaler.by(config.getMaxLoad());
-        maxLoadInverse = Scaler.by(1.0 / config.getMaxLoad());
+        this.currentMaxLoad = currentMaxLoad;
+        maxLoad = Scaler.by(currentMaxLoad);
+        maxLoadInverse = Scaler.by(1.0 / currentMaxLoad);
         growthFactor = Scaler.by(config.getGrowthFactor());
     }
 
@@ -43,6 +50,56 @@ public final class HashConfigWrapper {
         return config;
     }
 
+    /**
+     * Returns the load hash tables with this config grow at. It is equal to
+     * {@code config().getMaxLoad()}, unless the load is {@linkplain #adapt(double) adapted}.
+     */
+    public double currentMaxLoad() {
+        return currentMaxLoad;
+    }
+
+    /**
+     * Checks if the {@linkplain HashConfig#getTargetProbeLength() target probe length}
+     * of this config is positive, i. e. hash tables should {@link #adapt(double)} the load.
+     */
+    public boolean adaptive() {
+        return config.getTargetProbeLength() > 0.0;
+    }
+
+    /**
+     * Tunes the current max load according to the average probe length, observed in a hash table
+     * with this config. The returned wrapper has the same {@link #config()}, its current max load
+     * is lower than of this wrapper, if the given average probe length is greater than
+     * the {@linkplain HashConfig#getTargetProbeLength() target probe length}, and higher,
+     * if the given probe length is less. The current max load is kept in the
+     * [max({@code config().getTargetLoad()}, {@code config().getMinLoad() *
+     * config().getGrowthFactor()}), {@code config().getMaxLoad()}] range, so that a table, grown
+     * at the current max load, isn't sparser than the min load. Otherwise
+     * a {@linkplain HashConfig#getShrinkPolicy() shrink policy} would shrink the table back
+     * on the next removal, and the next insertion would grow it again. Linear probing hashes,
+     * which capacities are powers of 2, always have the growth factor of 2.
+     *
+     * @param averageProbeLength the average number of slots inspected by successful key searches
+     *        in the hash table, {@code 0.0} if the table is empty
+     * @return the wrapper with the tuned current max load, or this wrapper, if the config
+     *         is not {@link #adaptive()}, the table is empty or the load shouldn't be changed
+     */
+    public HashConfigWrapper adapt(double averageProbeLength) {
+        double targetProbeLength = config.getTargetProbeLength();
+        if (targetProbeLength == 0.0 || averageProbeLength < 1.0)
+            return this;
+        // Square root damps the step, so that the load converges rather than oscillates
+        // between the bounds when the probe length is sensitive to the load
+        double newMaxLoad = currentMaxLoad * Math.sqrt(targetProbeLength / averageProbeLength);
+        // HashConfig ensures that minLoad * growthFactor <= maxLoad
+        double lowestMaxLoad =
+                Math.max(config.getTargetLoad(), config.getMinLoad() * config.getGrowthFactor());
+        newMaxLoad = Math.max(lowestMaxLoad, Math.min(newMaxLoad, config.getMaxLoad()));
+        if (Math.abs(newMaxLoad - currentMaxLoad) < 0.001)
+            return this;
+        return new HashConfigWrapper(config, newMaxLoad);
+    }
+
     /**
      * Computes hash table capacity for the given size and min load of this config.
      *
@@ -93,11 +150,11 @@ public final class HashConfigWrapper {
 
 
     /**
-     * Computes hash table capacity for the given size and max load of this config.
+     * Computes hash table capacity for the given size and current max load.
      *
      * @param size size of the hash table to compute capacity for
      * @return if the given size is non-negative, returns the least int capacity such that
-     *         size / capacity < {@code config().getMaxLoad()}, or {@code Integer.MAX_VALUE}
+     *         size / capacity < {@link #currentMaxLoad()}, or {@code Integer.MAX_VALUE}
      *         if there is no such capacity. If size is negative, result is undefined.
      */
     public int minCapacity(int size) {
@@ -105,17 +162,29 @@ public final class HashConfigWrapper {
     }
 
     /**
-     * Computes hash table capacity for the given size and max load of this config.
+     * Computes hash table capacity for the given size and current max load.
      *
      * @param size size of the hash table to compute capacity for
      * @return if the given size is non-negative, returns the least long capacity
-     *         such that size / capacity < {@code config().getMaxLoad()}.
+     *         such that size / capacity < {@link #currentMaxLoad()}.
      *         If size is negative or there is no such long capacity, result is undefined.
      */
     public long minCapacity(long size) {
         return maxLoadInverse.scaleUpper(size);
     }
 
+    /**
+     * Computes the size, below which a hash table of the given capacity is sparser than
+     * the min load of this config.
+     *
+     * @param capacity capacity of the hash table
+     * @return if the given capacity is non-negative, returns the greatest int size such that
+     *         size / capacity <= {@code config().getMinLoad()}, or 0 if the min load is 0.0
+     */
+    public int minSize(int capacity) {
+        return minLoad != null ? minLoad.scaleLower(capacity) : 0;
+    }
+
     public int maxSize(int capacity) {
         return maxLoad.scaleLower(capacity);
     }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.impl.hash;
+
+import javax.annotation.Nullable;
+
+
+/**
+ * Global hooks of hash implementations. Unlike {@link InstrumentedHash} counters, the rehash
+ * listener is notified in all library builds, because it costs a single volatile read
+ * per rehash.
+ */
+public final class HashInstrumentation {
+
+    @Nullable
+    private static volatile RehashListener rehashListener = null;
+
+    /**
+     * Sets the listener to be notified after rehashes of all hashes, or removes the current
+     * listener, if {@code null} is given.
+     *
+     * @param listener the new rehash listener, or {@code null}
+     */
+    public static void setRehashListener(@Nullable RehashListener listener) {
+        rehashListener = listener;
+    }
+
+    /**
+     * Returns the current rehash listener, or {@code null}, if it is not set.
+     */
+    @Nullable
+    public static RehashListener rehashListener() {
+        return rehashListener;
+    }
+
+    private HashInstrumentation() {}
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.impl.hash;
+
+import java.util.Arrays;
+
+
+/**
+ * Snapshot of the hashtable state, taken by {@link Hash#hashStats()}. Allows to tell whether
+ * a degraded hash suffers from clustering (long probe sequences and clusters) or from
+ * tombstones (high {@link #tombstoneRatio()}).
+ *
+ * <p>Probe length of a key is the number of slots a successful lookup of this key inspects,
+ * i. e. 1, if the key is placed in its home slot. A cluster is a maximal run of adjacent
+ * (wrapping around the table end) slots, holding present keys. Removed slots don't join
+ * clusters, they are accounted in {@link #removedSlots()} and {@link #tombstoneRatio()}.
+ */
+public final class HashStats {
+
+    private final int size;
+    private final int capacity;
+    private final int freeSlots;
+    private final int removedSlots;
+    private final long probeLengthSum;
+    private final int maxProbeLength;
+    private final int[] clusterLengthHistogram;
+    private final int clusters;
+    private final int maxClusterLength;
+    private final int rehashCount;
+    private final long rehashNanos;
+
+    private HashStats(Builder b, int[] clusterLengthHistogram) {
+        size = b.size;
+        capacity = b.capacity;
+        freeSlots = b.freeSlots;
+        removedSlots = b.removedSlots;
+        probeLengthSum = b.probeLengthSum;
+        maxProbeLength = b.maxProbeLength;
+        this.clusterLengthHistogram = clusterLengthHistogram;
+        clusters = b.clusters;
+        maxClusterLength = b.maxClusterLength;
+        rehashCount = b.rehashCount;
+        rehashNanos = b.rehashNanos;
+    }
+
+    /** @see Hash#size() */
+    public int size() {
+        return size;
+    }
+
+    /** @see Hash#capacity() */
+    public int capacity() {
+        return capacity;
+    }
+
+    /** @see Hash#freeSlots() */
+    public int freeSlots() {
+        return freeSlots;
+    }
+
+    /** @see Hash#removedSlots() */
+    public int removedSlots() {
+        return removedSlots;
+    }
+
+    /**
+     * Returns the share of the table slots occupied by tombstones, i. e.
+     * {@code removedSlots() / capacity()}. {@link Hash#currentLoad()} is the sum of
+     * {@code size() / capacity()} and this ratio.
+     *
+     * @return the share of removed slots in the table
+     */
+    public double tombstoneRatio() {
+        return capacity != 0 ? (double) removedSlots / (double) capacity : 0.0;
+    }
+
+    /**
+     * Returns the average number of slots a successful lookup inspects.
+     *
+     * @return the average probe length over all present keys, or 0.0 if the hash is empty
+     */
+    public double averageProbeLength() {
+        return size != 0 ? (double) probeLengthSum / (double) size : 0.0;
+    }
+
+    /**
+     * Returns the max number of slots a successful lookup inspects.
+     *
+     * @return the max probe length over all present keys, or 0 if the hash is empty
+     */
+    public int maxProbeLength() {
+        return maxProbeLength;
+    }
+
+    /**
+     * Returns the histogram of cluster lengths, bucketed by powers of 2: the element {@code k}
+     * of the returned array is the number of clusters with lengths in
+     * [2<sup>k</sup>, 2<sup>k+1</sup>) range. The last element of the array is non-zero,
+     * if the hash is not empty.
+     *
+     * @return a new array with the cluster length histogram
+     */
+    public int[] clusterLengthHistogram() {
+        return clusterLengthHistogram.clone();
+    }
+
+    /**
+     * Returns the number of clusters.
+     *
+     * @return the number of clusters in the table
+     */
+    public int clusters() {
+        return clusters;
+    }
+
+    /**
+     * Returns the length of the longest cluster.
+     *
+     * @return the length of the longest cluster, or 0 if the hash is empty
+     */
+    public int maxClusterLength() {
+        return maxClusterLength;
+    }
+
+    /**
+     * Returns the average cluster length.
+     *
+     * @return the average cluster length, or 0.0 if the hash is empty
+     */
+    public double averageClusterLength() {
+        return clusters != 0 ? (double) size / (double) clusters : 0.0;
+    }
+
+    /** @see Hash#rehashCount() */
+    public int rehashCount() {
+        return rehashCount;
+    }
+
+    /** @see Hash#rehashNanos() */
+    public long rehashNanos() {
+        return rehashNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "HashStats{size=" + size + ", capacity=" + capacity +
+                ", freeSlots=" + freeSlots + ", removedSlots=" + removedSlots +
+                ", averageProbeLength=" + averageProbeLength() +
+                ", maxProbeLength=" + maxProbeLength +
+                ", clusterLengthHistogram=" + Arrays.toString(clusterLengthHistogram) +
+                ", clusters=" + clusters + ", maxClusterLength=" + maxClusterLength +
+                ", rehashCount=" + rehashCount + ", rehashNanos=" + rehashNanos + "}";
+    }
+
+
+    /**
+     * Accumulates {@link HashStats} during a scan over the table. Hash implementations
+     * should report all present keys via {@link #key(int, int)} in the descending order
+     * of slots, the order in which bulk operations traverse hashtables.
+     */
+    public static final class Builder {
+
+        private final int size;
+        private final int capacity;
+        private final int freeSlots;
+        private final int removedSlots;
+        private final int rehashCount;
+        private final long rehashNanos;
+
+        private long probeLengthSum = 0L;
+        private int maxProbeLength = 0;
+        private final int[] clusterLengthHistogram = new int[Integer.SIZE];
+        private int clusters = 0;
+        private int maxClusterLength = 0;
+
+        /** The lowest slot of the current cluster, -1 before the first reported key */
+        private int clusterStart = -1;
+        private int clusterEnd = -1;
+        /**
+         * Length of the cluster, ending with the last slot of the table, it might continue
+         * from the first slot
+         */
+        private int wrappingClusterLength = 0;
+
+        public Builder(Hash hash) {
+            size = hash.size();
+            capacity = hash.capacity();
+            freeSlots = hash.freeSlots();
+            removedSlots = hash.removedSlots();
+            rehashCount = hash.rehashCount();
+            rehashNanos = hash.rehashNanos();
+        }
+
+        /**
+         * Reports a present key.
+         *
+         * @param slot the slot of the key, in range [0, {@link Hash#capacity()})
+         * @param probeLength the number of slots a lookup of the key inspects
+         */
+        public void key(int slot, int probeLength) {
+            probeLengthSum += probeLength;
+            if (probeLength > maxProbeLength)
+                maxProbeLength = probeLength;
+            if (slot == clusterStart - 1) {
+                clusterStart = slot;
+            } else {
+                if (clusterStart >= 0)
+                    endCluster();
+                clusterStart = clusterEnd = slot;
+            }
+        }
+
+        private void endCluster() {
+            int length = clusterEnd - clusterStart + 1;
+            if (clusterEnd == capacity - 1 && clusterStart > 0) {
+                wrappingClusterLength = length;
+            } else {
+                if (clusterStart == 0)
+                    length += wrappingClusterLength;
+                cluster(length);
+            }
+        }
+
+        private void cluster(int length) {
+            clusters++;
+            clusterLengthHistogram[Integer.SIZE - 1 - Integer.numberOfLeadingZeros(length)]++;
+            if (length > maxClusterLength)
+                maxClusterLength = length;
+        }
+
+        public HashStats build() {
+            if (clusterStart >= 0) {
+                endCluster();
+                // the table wrapping cluster doesn't continue from the first slot
+                if (clusterStart > 0 && wrappingClusterLength > 0)
+                    cluster(wrappingClusterLength);
+            }
+            int buckets = Integer.SIZE;
+            while (buckets > 0 && clusterLengthHistogram[buckets - 1] == 0) {
+                buckets--;
+            }
+            return new HashStats(this, Arrays.copyOf(clusterLengthHistogram, buckets));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.impl.hash;
+
+
+/**
+ * Operation counters of a hash. Hashes implement this interface only if the library is built
+ * with {@code -PlibInstrumented=true}, otherwise the counting code is not generated at all,
+ * so checking {@code hash instanceof InstrumentedHash} tells whether the build is instrumented.
+ *
+ * <p>Counters are plain fields, incremented without any synchronization. They are exact
+ * if the hash is accessed from a single thread, and approximate if an immutable hash
+ * is queried from multiple threads concurrently.
+ */
+public interface InstrumentedHash extends Hash {
+
+    /**
+     * Returns the number of key searches in this hash since construction: queries, insertions
+     * and removals by key.
+     */
+    long lookups();
+
+    /**
+     * Returns the number of slots, inspected by key searches in this hash since construction,
+     * beyond the first slot of each search. {@code 1.0 + probes() / lookups()} is the average
+     * number of slots inspected by a key search.
+     */
+    long probes();
+
+    /**
+     * Returns the number of keys inserted into this hash since construction.
+     */
+    long inserts();
+
+    /**
+     * Returns the number of keys removed from this hash since construction, not including
+     * {@link #clear()}.
+     */
+    long removes();
+}
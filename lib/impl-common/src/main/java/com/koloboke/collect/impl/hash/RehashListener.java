@@ -0,0 +1,61 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.impl.hash;
+
+
+/**
+ * Callback, notified after each rehash of a mutable or updatable hash.
+ * See {@link HashInstrumentation#setRehashListener(RehashListener)}.
+ *
+ * <p>Listener is called synchronously, from the thread which modifies the hash, so it should
+ * return fast and must not access the rehashed hash other than via {@link Hash} getters.
+ */
+public interface RehashListener {
+
+    /**
+     * The reason of a rehash.
+     */
+    enum Cause {
+        /**
+         * The hash is grown because of insertions or {@link Hash#ensureCapacity(long)} call.
+         */
+        GROWTH,
+        /**
+         * {@link Hash#shrink()} is called.
+         */
+        SHRINK,
+        /**
+         * The table is rebuilt with the same or a smaller capacity, to get rid of too many
+         * removed slots (tombstones).
+         */
+        PURGE
+    }
+
+    /**
+     * Called after the given hash is rehashed.
+     *
+     * @param hash the rehashed hash
+     * @param cause the reason of the rehash
+     * @param oldCapacity the capacity of the hash before the rehash
+     * @param newCapacity the capacity of the hash after the rehash
+     * @param removedSlots the number of removed slots in the hash before the rehash,
+     *        all of them are purged by the rehash
+     * @param durationNanos the time spent in the rehash, in nanoseconds
+     */
+    void rehashed(Hash hash, Cause cause, int oldCapacity, int newCapacity, int removedSlots,
+            long durationNanos);
+}
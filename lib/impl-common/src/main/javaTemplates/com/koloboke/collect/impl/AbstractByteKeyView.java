@@ -17,6 +17,7 @@
 
 package com.koloboke.collect.impl;
 
+import com.koloboke.collect.*;
 import com.koloboke.collect.set.ByteSet;
 import javax.annotation.Nonnull;
 
@@ -24,7 +25,8 @@ import java.util.Collection;
 
 
 public abstract class AbstractByteKeyView/*<>*/ extends AbstractSetView<Byte>
-        implements ByteSet/*<>*/, InternalByteCollectionOps/*<>*/ {
+        implements ByteSet/*<>*/, InternalByteCollectionOps/*<>*//* if !(obj key) */,
+        ByteBulkTransfer/* endif */ {
 
     @Override
     public final boolean containsAll(@Nonnull Collection<?> c) {
@@ -43,5 +45,16 @@ public abstract class AbstractByteKeyView/*<>*/ extends AbstractSetView<Byte>
         throw new UnsupportedOperationException();
     }
     /* endif */
+
+    @Override
+    public final boolean readFrom(/* with int key */java.nio.ByteBuffer/* endwith */ buffer) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public final boolean readFrom(
+            /* with int key */java.nio.channels.ReadableByteChannel/* endwith */ channel) {
+        throw new UnsupportedOperationException();
+    }
     /* endif */
 }
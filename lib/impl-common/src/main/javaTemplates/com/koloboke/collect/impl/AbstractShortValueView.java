@@ -17,14 +17,15 @@
 
 package com.koloboke.collect.impl;
 
-import com.koloboke.collect.ShortCollection;
+import com.koloboke.collect.*;
 import javax.annotation.Nonnull;
 
 import java.util.Collection;
 
 
 public abstract class AbstractShortValueView/*<>*/ extends AbstractView<Short>
-        implements ShortCollection/*<>*/, InternalShortCollectionOps/*<>*/ {
+        implements ShortCollection/*<>*/, InternalShortCollectionOps/*<>*//* if !(obj value) */,
+        ShortBulkTransfer/* endif */ {
 
     @Override
     public final boolean containsAll(@Nonnull Collection<?> c) {
@@ -43,5 +44,15 @@ public abstract class AbstractShortValueView/*<>*/ extends AbstractView<Short>
         throw new UnsupportedOperationException();
     }
     /* endif */
+
+    @Override
+    public final boolean readFrom(java.nio.ByteBuffer buffer) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public final boolean readFrom(java.nio.channels.ReadableByteChannel channel) {
+        throw new UnsupportedOperationException();
+    }
     /* endif */
 }
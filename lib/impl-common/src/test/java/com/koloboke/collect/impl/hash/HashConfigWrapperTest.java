@@ -21,7 +21,7 @@ import com.koloboke.collect.impl.ScalerTest;
 import org.junit.Test;
 
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
-import static org.junit.Assert.assertThat;
+import static org.junit.Assert.*;
 
 
 public class HashConfigWrapperTest {
@@ -51,4 +51,46 @@ public class HashConfigWrapperTest {
             }
         }
     }
+
+    @Test
+    public void testAdaptStaysWithinBounds() {
+        // min load * growth factor is below the target load
+        HashConfig config = HashConfig.getDefault().withMinLoad(0.2).withTargetProbeLength(1.5);
+        HashConfigWrapper w = new HashConfigWrapper(config);
+        assertTrue(w.adaptive());
+        assertEquals(config.getMaxLoad(), w.currentMaxLoad(), 0.0);
+        // empty table
+        assertSame(w, w.adapt(0.0));
+        // well distributed keys, already at max load
+        assertSame(w, w.adapt(1.1));
+        for (int i = 0; i < 100; i++) {
+            w = w.adapt(10.0);
+        }
+        assertSame(config, w.config());
+        assertEquals(config.getTargetLoad(), w.currentMaxLoad(), 0.0);
+        HashConfigWrapper lowered = w;
+        w = w.adapt(1.2);
+        assertTrue(w.currentMaxLoad() > lowered.currentMaxLoad());
+        assertTrue(w.currentMaxLoad() <= config.getMaxLoad());
+    }
+
+    @Test
+    public void testAdaptKeepsGrownTableAboveMinLoad() {
+        HashConfig config = HashConfig.getDefault().withMinLoad(0.3).withTargetProbeLength(1.5);
+        HashConfigWrapper w = new HashConfigWrapper(config);
+        for (int i = 0; i < 100; i++) {
+            w = w.adapt(10.0);
+        }
+        assertEquals(config.getMinLoad() * config.getGrowthFactor(), w.currentMaxLoad(), 0.0);
+        // with the default loads and growth factor the load couldn't be lowered at all
+        w = new HashConfigWrapper(HashConfig.getDefault().withTargetProbeLength(1.5));
+        assertSame(w, w.adapt(10.0));
+    }
+
+    @Test
+    public void testNotAdaptive() {
+        HashConfigWrapper w = new HashConfigWrapper(HashConfig.getDefault());
+        assertFalse(w.adaptive());
+        assertSame(w, w.adapt(10.0));
+    }
 }
@@ -268,6 +268,10 @@ public final class MethodContext {
         return TRUE.equals(concurrentModificationChecked);
     }
 
+    public boolean instrumented() {
+        return TRUE.equals(getOption("instrumented"));
+    }
+
     public String unsafeGetKeyBits(String object, String offset) {
         return unsafeGet(object, offset, ((PrimitiveType) keyOption()).bitsType());
     }
@@ -55,6 +55,10 @@ public final class MethodGeneratingProcessor extends TemplateProcessor {
                     put(ToArray.class);
                     put(ToTypedArray.class);
                     put(ToPrimitiveArray.class);
+                    put(ToBuffer.class);
+                    put(ExportTo.class);
+                    put(WriteTo.class);
+                    put(WriteToChannel.class);
                     put(RemoveAll.class);
                     put(RetainAll.class);
                     put(SetHashCode.class);
@@ -63,6 +67,7 @@ public final class MethodGeneratingProcessor extends TemplateProcessor {
 
                     // hash-only
                     put(Rehash.class);
+                    put(HashStats.class);
                     put(Index.class);
                     put(Insert.class);
                     put(ValueIndex.class);
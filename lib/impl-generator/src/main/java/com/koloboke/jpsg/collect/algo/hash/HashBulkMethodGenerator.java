@@ -106,11 +106,17 @@ public class HashBulkMethodGenerator extends BulkMethodGenerator {
             INSTANCE.declareEntry(this, cxt);
         }
 
+        boolean splitLoops = INSTANCE.possibleRemovedSlots(cxt) && !cxt.isFloatingKey();
+        if (splitLoops) {
+            // Must be read before rightBeforeLoop(), because Rehash resets the removed slots
+            // count there, while the old table still contains removed slots
+            lines("boolean noRemoved = noRemoved();");
+        }
+
         method.rightBeforeLoop();
 
-        boolean splitLoops = INSTANCE.possibleRemovedSlots(cxt) && !cxt.isFloatingKey();
         if (splitLoops) {
-            lines("if (noRemoved()) {");
+            lines("if (noRemoved) {");
             indent();
         }
         bulkLoop(replace);
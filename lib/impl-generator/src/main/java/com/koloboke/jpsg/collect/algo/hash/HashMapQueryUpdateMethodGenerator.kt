@@ -108,13 +108,14 @@ class HashMapQueryUpdateMethodGenerator : MapQueryUpdateMethodGenerator() {
             incrementModCount()
             writeKeyAndValue(this, cxt, table(), "keys", values(), indexF(), unwrappedKey(),
                     { unwrapValue(value) }, true, cxt.isMapView)
+            val collisions = if (countsCollisions()) "collisions" else "0"
             if (removedSlot) {
-                lines("postRemovedSlotInsertHook();")
+                lines("postRemovedSlotInsertHook($collisions);")
             } else {
                 lines(if (possibleRemovedSlots(cxt))
-                    "postFreeSlotInsertHook();"
+                    "postFreeSlotInsertHook($collisions);"
                 else
-                    "postInsertHook();")
+                    "postInsertHook($collisions);")
             }
         } else {
             lines("insertAt(insertionIndex, " + unwrappedKey() + ", " + value + ");")
@@ -423,6 +424,8 @@ class HashMapQueryUpdateMethodGenerator : MapQueryUpdateMethodGenerator() {
                 lines("postRemoveHook();")
             }
         }
+        // query and update methods return right after removal, the table could be rehashed
+        lines("tryShrinkOnRemove();")
         return this
     }
 
@@ -434,6 +437,9 @@ class HashMapQueryUpdateMethodGenerator : MapQueryUpdateMethodGenerator() {
 
 
     private fun generateInline() {
+        // null key searches are counted by the methods delegating to *NullKey() methods
+        if (cxt.instrumented() && !cxt.isNullKey)
+            lines("lookups++;")
         inlineBeginning()
         inlineLocals()
         val curAssignment = curAssignment(cxt, unwrappedKey(), commonCapacityMaskCopy)
@@ -537,8 +543,17 @@ class HashMapQueryUpdateMethodGenerator : MapQueryUpdateMethodGenerator() {
         }
     }
 
+    /**
+     * Inserting methods count slots inspected beyond the first one, to report the probe length
+     * of the inserted key to the insert hook, see MutableDHash.adaptLoad(). The hook uses
+     * the count only if the config is adaptive, otherwise JIT eliminates the counting.
+     */
+    private fun countsCollisions() = method!!.baseOp() != GET
+
     private fun inlineLocals() {
         copyArrays(this, cxt, commonValuesCopy)
+        if (countsCollisions())
+            lines("int collisions = 0;")
         val locals: String
         if (isLHash(cxt)) {
             if (commonCapacityMaskCopy) {
@@ -653,6 +668,10 @@ class HashMapQueryUpdateMethodGenerator : MapQueryUpdateMethodGenerator() {
 
     private fun keySearchLoop(noRemoved: Boolean, stepPrecomputed: Boolean) {
         KeySearch.innerLoop(this, cxt, { firstIndex, index ->
+            if (cxt.instrumented())
+                lines("probes++;")
+            if (countsCollisions())
+                lines("collisions++;")
             val prevIndex = this.index
             this.index = index
             val beforeBreak = {
@@ -691,6 +710,10 @@ class HashMapQueryUpdateMethodGenerator : MapQueryUpdateMethodGenerator() {
         if (separateAbsentRemovedSlot)
             lines(absentLabel(true) + ":").block()
         KeySearch.innerLoop(this, cxt, { firstIndex, index ->
+            if (cxt.instrumented())
+                lines("probes++;")
+            if (countsCollisions())
+                lines("collisions++;")
             val prevIndex = this.index
             this.index = index
             val beforeBreak = {
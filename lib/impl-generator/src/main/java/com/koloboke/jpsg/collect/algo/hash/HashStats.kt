@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.jpsg.collect.algo.hash
+
+import com.koloboke.jpsg.collect.algo.hash.HashMethodGeneratorCommons.capacityMask
+import com.koloboke.jpsg.collect.algo.hash.HashMethodGeneratorCommons.doubleSizedParallel
+import com.koloboke.jpsg.collect.algo.hash.HashMethodGeneratorCommons.isDHash
+import com.koloboke.jpsg.collect.algo.hash.HashMethodGeneratorCommons.isLHash
+import com.koloboke.jpsg.collect.algo.hash.HashMethodGeneratorCommons.localTableVar
+import com.koloboke.jpsg.collect.bulk.BulkMethod
+
+class HashStats : BulkMethod() {
+
+    override fun beginning() {
+        gen.lines("HashStats.Builder stats = new HashStats.Builder(this);")
+    }
+
+    override fun rightBeforeLoop() {
+        val table = localTableVar(cxt)
+        gen.lines(if (isLHash(cxt))
+            "int capacityMask = " + capacityMask(cxt, table) + ";"
+        else
+            "int capacity = $table.length;")
+    }
+
+    override fun loopBody() {
+        val i = (gen as HashBulkMethodGenerator).index()
+        if (isDHash(cxt))
+            gen.lines("int hash;")
+        gen.lines("int index;")
+        gen.lines("int probes = 1;")
+        val indexAssignment = KeySearch.indexAssignment(cxt, "tab", "keys", gen.unwrappedKey(),
+                true, false)
+        gen.ifBlock("($indexAssignment) != $i")
+        run {
+            KeySearch.innerLoop(gen, cxt, { firstIndex, index ->
+                gen.lines("probes++;")
+                gen.ifBlock("$firstIndex == $i")
+                run {
+                    gen.lines("break;")
+                }
+                gen.blockEnd()
+            }, false).generate()
+        }
+        gen.blockEnd()
+        val slot = if (doubleSizedParallel(cxt)) "$i >> 1" else i
+        gen.lines("stats.key($slot, probes);")
+    }
+
+    override fun end() {
+        gen.ret("stats.build()")
+    }
+}
@@ -53,7 +53,17 @@ final class KeySearch {
 
     static String firstKey(MethodContext cxt, String table, String keys, String key,
             boolean capacityAssigned, boolean distinctNullKey, boolean readKeyOnly) {
-        String indexAssignment;
+        String indexAssignment =
+                indexAssignment(cxt, table, keys, key, capacityAssigned, distinctNullKey);
+        if (readKeyOnly) {
+            return INSTANCE.readKeyOnly(cxt, table, keys, indexAssignment);
+        } else {
+            return INSTANCE.readKeyOrEntry(cxt, table, keys, indexAssignment);
+        }
+    }
+
+    static String indexAssignment(MethodContext cxt, String table, String keys, String key,
+            boolean capacityAssigned, boolean distinctNullKey) {
         if (!cxt.isNullKey()) {
             String modulo;
             if (INSTANCE.isLHash(cxt)) {
@@ -68,14 +78,9 @@ final class KeySearch {
             String hashAssignment = INSTANCE.keyHash(cxt, key, distinctNullKey);
             if (INSTANCE.isDHash(cxt))
                 hashAssignment = "(hash = " + hashAssignment + ")";
-            indexAssignment = "index = " + hashAssignment + modulo;
-        } else {
-            indexAssignment = "index = 0";
-        }
-        if (readKeyOnly) {
-            return INSTANCE.readKeyOnly(cxt, table, keys, indexAssignment);
+            return "index = " + hashAssignment + modulo;
         } else {
-            return INSTANCE.readKeyOrEntry(cxt, table, keys, indexAssignment);
+            return "index = 0";
         }
     }
 
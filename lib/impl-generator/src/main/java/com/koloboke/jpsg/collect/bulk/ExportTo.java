@@ -0,0 +1,46 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.jpsg.collect.bulk;
+
+
+public final class ExportTo extends BulkMethod {
+
+    @Override
+    public void beginning() {
+        gen.lines(
+                "int size = size();",
+                "if (offset < 0 || keyArray.length - offset < size || valueArray.length - offset < size)",
+                "    throw new IndexOutOfBoundsException(\"offset: \" + offset + \", size: \" + size);",
+                "if (size == 0)",
+                "    return 0;",
+                "int resultIndex = offset;"
+        );
+    }
+
+    @Override
+    public void loopBody() {
+        gen.lines(
+                "keyArray[resultIndex] = " + gen.key() + ";",
+                "valueArray[resultIndex++] = " + gen.value() + ";"
+        );
+    }
+
+    @Override
+    public void end() {
+        gen.ret("size");
+    }
+}
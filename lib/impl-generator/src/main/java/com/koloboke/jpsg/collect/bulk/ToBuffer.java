@@ -0,0 +1,42 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.jpsg.collect.bulk;
+
+
+public final class ToBuffer extends BulkMethod {
+
+    @Override
+    public void beginning() {
+        gen.lines(
+                "int size = size();",
+                "if (buffer.remaining() < size)",
+                "    throw new java.nio.BufferOverflowException();",
+                "if (size == 0)",
+                "    return buffer;"
+        );
+    }
+
+    @Override
+    public void loopBody() {
+        gen.lines("buffer.put(" + gen.viewElem() + ");");
+    }
+
+    @Override
+    public void end() {
+        gen.ret("buffer");
+    }
+}
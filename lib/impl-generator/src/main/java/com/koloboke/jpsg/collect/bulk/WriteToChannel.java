@@ -0,0 +1,56 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.jpsg.collect.bulk;
+
+import com.koloboke.jpsg.PrimitiveType;
+
+import static com.koloboke.jpsg.collect.bulk.WriteTo.put;
+
+
+public final class WriteToChannel extends BulkMethod {
+
+    private static final String CHANNEL_IO = "com.koloboke.collect.impl.ChannelIO";
+
+    @Override
+    public void beginning() {
+        escapeIfEmpty();
+        gen.lines("java.nio.ByteBuffer chunk = " + CHANNEL_IO + ".acquireChunk();");
+        // release the chunk even if the channel throws, not to allocate a new one next time
+        gen.lines("try").block();
+    }
+
+    @Override
+    public void loopBody() {
+        PrimitiveType elemType = (PrimitiveType) cxt.viewOption();
+        gen.lines(
+                "chunk." + put(elemType) + "(" + gen.viewElem() + ");",
+                "if (!chunk.hasRemaining())",
+                "    " + CHANNEL_IO + ".write(channel, chunk);"
+        );
+    }
+
+    @Override
+    public void end() {
+        gen.lines(
+                "if (chunk.position() > 0)",
+                "    " + CHANNEL_IO + ".write(channel, chunk);"
+        );
+        gen.unIndent().lines("} finally").block();
+        gen.lines(CHANNEL_IO + ".releaseChunk(chunk);");
+        gen.blockEnd();
+    }
+}
@@ -18,7 +18,8 @@
 package com.koloboke.collect.impl.hash;
 
 
-public abstract class ImmutableDHash extends HashWithoutRemovedSlots implements DHash {
+public abstract class ImmutableDHash extends HashWithoutRemovedSlots
+        implements DHash/* if true instrumented //, InstrumentedHash// endif */ {
 
     ////////////////////////////
     // Fields
@@ -28,6 +29,12 @@ public abstract class ImmutableDHash extends HashWithoutRemovedSlots implements
     /** The current number of occupied slots in the hash. */
     int size;
 
+    /* if true instrumented */
+    long lookups = 0L;
+
+    long probes = 0L;
+    /* endif */
+
 
     final void copy(DHash hash) {
         this.configWrapper = hash.configWrapper();
@@ -58,6 +65,38 @@ public abstract class ImmutableDHash extends HashWithoutRemovedSlots implements
         return 0;
     }
 
+    @Override
+    public final int rehashCount() {
+        return 0;
+    }
+
+    @Override
+    public final long rehashNanos() {
+        return 0L;
+    }
+
+    /* if true instrumented */
+    @Override
+    public final long lookups() {
+        return lookups;
+    }
+
+    @Override
+    public final long probes() {
+        return probes;
+    }
+
+    @Override
+    public final long inserts() {
+        return 0L;
+    }
+
+    @Override
+    public final long removes() {
+        return 0L;
+    }
+    /* endif */
+
 
     ///////////////////////////////////
     // Mutation operations aren't supported
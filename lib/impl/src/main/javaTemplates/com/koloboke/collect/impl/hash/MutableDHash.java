@@ -23,14 +23,17 @@ package com.koloboke.collect.impl.hash;
 
 import com.koloboke.collect.hash.HashConfig;
 import com.koloboke.collect.hash.HashOverflowException;
+import com.koloboke.collect.hash.ShrinkPolicy;
 import com.koloboke.collect.impl.AbstractContainer;
 
 import javax.annotation.Nonnull;
 
 import static com.koloboke.collect.impl.hash.DHashCapacities.nearestGreaterCapacity;
+import static com.koloboke.collect.impl.hash.RehashListener.Cause.*;
 
 
-public abstract class MutableDHash extends AbstractContainer implements DHash {
+public abstract class MutableDHash extends AbstractContainer
+        implements DHash/* if true instrumented //, InstrumentedHash// endif */ {
 
     private static int minFreeSlots(int capacity, int size, double maxLoad, int maxSize) {
         double load = (double) size / (double) capacity;
@@ -71,9 +74,44 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
     private int removedSlots;
 
 
+    /**
+     * The size, below which the hash is sparser than the min load, or 0 if the hash shouldn't
+     * shrink on removals.
+     */
+    private int minSize;
+
+    private int removesBelowMinLoad;
+
+    private long belowMinLoadSince;
+
+
     /* if true concurrentModificationChecked */ private int modCount = 0;/* endif */
 
 
+    private int rehashCount = 0;
+
+    private long rehashNanos = 0L;
+
+    /**
+     * The sum of probe lengths minus one, i. e. slots inspected beyond the home slot, of the keys
+     * inserted since the last rehash. Kept by the insert hooks for {@link #adaptLoad()}, only if
+     * the config is adaptive.
+     */
+    private long insertCollisions = 0L;
+
+    private long insertsSinceRehash = 0L;
+
+    /* if true instrumented */
+    long lookups = 0L;
+
+    long probes = 0L;
+
+    private long inserts = 0L;
+
+    private long removes = 0L;
+    /* endif */
+
+
     /////////////////////////////
     // Getters
 
@@ -126,6 +164,38 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
     }
     /* endif */
 
+    @Override
+    public final int rehashCount() {
+        return rehashCount;
+    }
+
+    @Override
+    public final long rehashNanos() {
+        return rehashNanos;
+    }
+
+    /* if true instrumented */
+    @Override
+    public final long lookups() {
+        return lookups;
+    }
+
+    @Override
+    public final long probes() {
+        return probes;
+    }
+
+    @Override
+    public final long inserts() {
+        return inserts;
+    }
+
+    @Override
+    public final long removes() {
+        return removes;
+    }
+    /* endif */
+
     /** For tests */
     public final int maxSize() {
         return maxSize;
@@ -152,10 +222,11 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
         this.maxSize = maxSize(capacity);
         int freeSlots = this.freeSlots = hash.freeSlots();
         int minFreeSlots = this.minFreeSlots =
-                minFreeSlots(capacity, size, hashConfig().getMaxLoad(), maxSize);
+                minFreeSlots(capacity, size, configWrapper.currentMaxLoad(), maxSize);
         // see #initSlotCounts()
         if (freeSlots < minFreeSlots) this.minFreeSlots = (freeSlots + 1) / 2;
         this.removedSlots = hash.removedSlots();
+        this.minSize = minSize(capacity);
     }
 
     /**
@@ -188,7 +259,7 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
 
     private void initSlotCounts(int capacity) {
         maxSize = maxSize(capacity);
-        minFreeSlots = minFreeSlots(capacity, size, hashConfig().getMaxLoad(), maxSize);
+        minFreeSlots = minFreeSlots(capacity, size, configWrapper.currentMaxLoad(), maxSize);
         int freeSlots = this.freeSlots = capacity - size;
         // free could be less than minFreeSlots only in case when capacity
         // is not sufficient to comply load factor (due to saturation with
@@ -196,6 +267,12 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
         // too often (instant) rehashing in this case.
         if (freeSlots < minFreeSlots) this.minFreeSlots = (freeSlots + 1) / 2;
         removedSlots = 0;
+        minSize = minSize(capacity);
+        removesBelowMinLoad = 0;
+    }
+
+    private int minSize(int capacity) {
+        return hashConfig().getShrinkPolicy() != null ? configWrapper.minSize(capacity) : 0;
     }
 
     private int maxSize(int capacity) {
@@ -217,10 +294,30 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
      *  3. Move elements, entries, etc. from the old arrays to the new ones.
      *
      * <p>Subclasses should implement, but MUST NOT call this method. This method is called
-     * in DHash from postInsertHooks, {@link #ensureCapacity(long)} and {@link #shrink()} methods.
+     * in DHash from postInsertHooks, {@link #ensureCapacity(long)} and {@link #shrink()} methods,
+     * via {@link #timedRehash(int, RehashListener.Cause)}.
      */
     abstract void rehash(int newCapacity);
 
+    /**
+     * Calls {@link #rehash(int)}, accounts it in {@link #rehashCount()} and
+     * {@link #rehashNanos()} and notifies {@link HashInstrumentation#rehashListener()}.
+     */
+    private void timedRehash(int newCapacity, RehashListener.Cause cause) {
+        int oldCapacity = capacity();
+        int removedSlots = this.removedSlots;
+        long start = System.nanoTime();
+        rehash(newCapacity);
+        long duration = System.nanoTime() - start;
+        rehashNanos += duration;
+        rehashCount++;
+        insertCollisions = 0L;
+        insertsSinceRehash = 0L;
+        RehashListener listener = HashInstrumentation.rehashListener();
+        if (listener != null)
+            listener.rehashed(this, cause, oldCapacity, newCapacity, removedSlots, duration);
+    }
+
     /**
      * This method just increments modification count (see {@link #modCount()})
      * and calls {@link #internalInit(int)}. Should be called by subclasses in
@@ -257,7 +354,7 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
     public boolean shrink() {
         int newCapacity = targetCapacity(size);
         if (removedSlots > 0 || newCapacity < capacity()) {
-            rehash(newCapacity);
+            timedRehash(newCapacity, SHRINK);
             return true;
         } else {
             return false;
@@ -267,8 +364,9 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
     private boolean tryRehashForExpansion(int newCapacity) {
         // No sense in rehashing for expansion if we already reached Java array
         // size limit.
-        if (newCapacity > capacity() || removedSlots > 0) {
-            rehash(newCapacity);
+        int capacity = capacity();
+        if (newCapacity > capacity || removedSlots > 0) {
+            timedRehash(newCapacity, newCapacity > capacity ? GROWTH : PURGE);
             return true;
         } else {
             if (freeSlots < minFreeSlots)
@@ -294,11 +392,46 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
     }
 
     final void postRemoveHook() {
+        /* if true instrumented */removes++;/* endif */
         size--;
         removedSlots++;
     }
 
-    final void postFreeSlotInsertHook() {
+    /**
+     * Should be called after removal of a key by a query or update method. Unlike
+     * {@link #postRemoveHook()}, which is also called from iterators and bulk operations,
+     * this method could rehash the table, according to
+     * the {@linkplain HashConfig#getShrinkPolicy() shrink policy}.
+     */
+    final void tryShrinkOnRemove() {
+        if (size < minSize) {
+            shrinkOnRemove();
+        } else if (removesBelowMinLoad != 0) {
+            removesBelowMinLoad = 0;
+        }
+    }
+
+    private void shrinkOnRemove() {
+        ShrinkPolicy policy = hashConfig().getShrinkPolicy();
+        int removes = removesBelowMinLoad;
+        long delayNanos = policy.getDelayNanos();
+        if (removes == 0 && delayNanos > 0L)
+            belowMinLoadSince = System.nanoTime();
+        if (removes < policy.getRemovals())
+            removesBelowMinLoad = ++removes;
+        if (removes < policy.getRemovals() ||
+                (delayNanos > 0L && System.nanoTime() - belowMinLoadSince < delayNanos)) {
+            return;
+        }
+        int newCapacity = targetCapacity(size);
+        if (capacity() - newCapacity >= Math.max(policy.getMinReclaimedSlots(), 1))
+            timedRehash(newCapacity, SHRINK);
+    }
+
+    final void postFreeSlotInsertHook(int collisions) {
+        /* if true instrumented */inserts++;/* endif */
+        if (configWrapper.adaptive())
+            countInsertCollisions(collisions);
         if (++size > maxSize) {
             if (tryRehashForExpansion(grownCapacity()))
                 return;
@@ -310,7 +443,10 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
         }
     }
 
-    final void postRemovedSlotInsertHook() {
+    final void postRemovedSlotInsertHook(int collisions) {
+        /* if true instrumented */inserts++;/* endif */
+        if (configWrapper.adaptive())
+            countInsertCollisions(collisions);
         if (++size > maxSize) {
             if (tryRehashForExpansion(grownCapacity()))
                 return;
@@ -320,13 +456,37 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
 
     private boolean tryRehashIfTooFewFreeSlots() {
         if (removedSlots > 0) {
-            rehash(targetCapacity(size));
+            timedRehash(targetCapacity(size), PURGE);
             return true;
         } else {
             return tryRehashForExpansion(grownCapacity());
         }
     }
 
+    /**
+     * Accounts the probe length of an inserted key for {@link #adaptLoad()}. Inserts into hashes
+     * with non-adaptive configs don't call this method, and as long as they don't, the JIT
+     * compiler drops the collision counting in the inlined probe loops as dead code.
+     */
+    private void countInsertCollisions(int collisions) {
+        insertCollisions += collisions;
+        insertsSinceRehash++;
+    }
+
+    /**
+     * If the {@linkplain HashConfig#getTargetProbeLength() adaptive load} is configured, tunes
+     * the load the table grows at next time, before it grows, by the average probe length of
+     * the keys inserted since the last rehash. These keys are inserted at the highest loads
+     * the table goes through, so they are the most sensitive to the load.
+     */
+    private void adaptLoad() {
+        HashConfigWrapper configWrapper = this.configWrapper;
+        if (configWrapper.adaptive() && insertsSinceRehash > 0L) {
+            this.configWrapper = configWrapper.adapt(
+                    1.0 + (double) insertCollisions / (double) insertsSinceRehash);
+        }
+    }
+
     /** @see MutableLHash#doubleSizedArrays() */
     boolean doubleSizedArrays() {
         return false;
@@ -341,6 +501,7 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
     }
 
     private int grownCapacity() {
+        adaptLoad();
         return nearestGreaterCapacity(configWrapper.grow(capacity()), size, doubleSizedArrays());
     }
 }
\ No newline at end of file
@@ -36,7 +36,8 @@ import java.util.*;
 
 
 public class MutableDHashByteSetGO/*<>*/ extends MutableByteDHashSetSO/*<>*/
-        implements HashByteSet/*<>*/, InternalByteCollectionOps/*<>*/ {
+        implements HashByteSet/*<>*/, InternalByteCollectionOps/*<>*//* if !(obj elem) */,
+        ByteBulkTransfer/* endif */ {
 
     @Override
     final void copy(SeparateKVByteDHash hash) {
@@ -175,6 +176,34 @@ public class MutableDHashByteSetGO/*<>*/ extends MutableByteDHashSetSO/*<>*/
     }
     /* endif */
 
+    /* if !(obj elem) */
+    @Override
+    public boolean readFrom(/* with int elem */java.nio.ByteBuffer/* endwith */ buffer) {
+        // Not pre-sized by the number of elements in the buffer, it might be mostly duplicates
+        int n = buffer.remaining() / (Byte.SIZE / 8);
+        boolean changed = false;
+        for (int i = 0; i < n; i++) {
+            changed |= add(buffer./* if !(byte elem) */getByte/* elif byte elem //get// endif */());
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean readFrom(/* with int elem */java.nio.channels.ReadableByteChannel/* endwith */ channel)
+            throws java.io.IOException {
+        /* with int elem */java.nio.ByteBuffer/* endwith */ chunk = ChannelIO.acquireReadChunk();
+        try {
+            boolean changed = false;
+            while (ChannelIO.read(channel, chunk, Byte.SIZE / 8)) {
+                changed |= readFrom(chunk);
+            }
+            return changed;
+        } finally {
+            ChannelIO.releaseChunk(chunk);
+        }
+    }
+    /* endif */
+
     /* if compile project */@SuppressFBWarnings("BC_IMPOSSIBLE_CAST")/* endif */
     @Override
     public boolean addAll(@Nonnull Collection<? extends Byte> c) {
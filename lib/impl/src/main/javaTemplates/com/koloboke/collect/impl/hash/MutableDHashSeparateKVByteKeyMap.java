@@ -166,6 +166,21 @@ public abstract class MutableDHashSeparateKVByteKeyMap/*<>*/
             /* endif */
         }
 
+        @Override
+        public int rehashCount() {
+            return MutableDHashSeparateKVByteKeyMap.this.rehashCount();
+        }
+
+        @Override
+        public long rehashNanos() {
+            return MutableDHashSeparateKVByteKeyMap.this.rehashNanos();
+        }
+
+        @Override
+        public HashStats hashStats() {
+            return MutableDHashSeparateKVByteKeyMap.this.hashStats();
+        }
+
         @Override
         public final boolean contains(Object o) {
             return MutableDHashSeparateKVByteKeyMap.this.contains(o);
@@ -253,6 +268,22 @@ public abstract class MutableDHashSeparateKVByteKeyMap/*<>*/
         public byte[] toArray(byte[] a) {
             return MutableDHashSeparateKVByteKeyMap.this.toArray(a);
         }
+
+        @Override
+        public java.nio.ByteBuffer toBuffer(java.nio.ByteBuffer buffer) {
+            return MutableDHashSeparateKVByteKeyMap.this.toBuffer(buffer);
+        }
+
+        @Override
+        public void writeTo(/* with int key */java.nio.ByteBuffer/* endwith */ buffer) {
+            MutableDHashSeparateKVByteKeyMap.this.writeTo(buffer);
+        }
+
+        @Override
+        public void writeTo(/* with int key */java.nio.channels.WritableByteChannel/* endwith */ channel)
+                throws java.io.IOException {
+            MutableDHashSeparateKVByteKeyMap.this.writeTo(channel);
+        }
         /* endif */
 
 
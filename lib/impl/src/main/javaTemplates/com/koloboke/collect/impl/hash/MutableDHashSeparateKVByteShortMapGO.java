@@ -157,6 +157,24 @@ public class MutableDHashSeparateKVByteShortMapGO/*<>*/
         return new NoRemovedMapCursor(/* if true concurrentModificationChecked */mc/* endif */);
     }
 
+    /* if !(obj key) && !(obj value) */
+    @Override
+    public int exportTo(byte[] keyArray, short[] valueArray, int offset) {
+        /* template ExportTo */ throw new NotGenerated(); /* endtemplate */
+    }
+
+    @Override
+    public int drainTo(byte[] keyArray, short[] valueArray, int offset) {
+        /* if !(Immutable mutability) */
+        int size = exportTo(keyArray, valueArray, offset);
+        doClear();
+        return size;
+        /* elif Immutable mutability //
+        throw new UnsupportedOperationException();
+        // endif */
+    }
+    /* endif */
+
     /* if compile project */
     /**
      * This method is needed because of problems with comparing this with other map, when they
@@ -1256,6 +1274,22 @@ public class MutableDHashSeparateKVByteShortMapGO/*<>*/
         public short[] toArray(short[] a) {
             /* template ToPrimitiveArray */ throw new NotGenerated(); /* endtemplate */
         }
+
+        @Override
+        public java.nio.ShortBuffer toBuffer(java.nio.ShortBuffer buffer) {
+            /* template ToBuffer */ throw new NotGenerated(); /* endtemplate */
+        }
+
+        @Override
+        public void writeTo(/* with int key */java.nio.ByteBuffer/* endwith */ buffer) {
+            /* template WriteTo */ throw new NotGenerated(); /* endtemplate */
+        }
+
+        @Override
+        public void writeTo(/* with int key */java.nio.channels.WritableByteChannel/* endwith */ channel)
+                throws java.io.IOException {
+            /* template WriteToChannel */ throw new NotGenerated(); /* endtemplate */
+        }
         /* endif */
 
 
@@ -25,13 +25,15 @@
 package com.koloboke.collect.impl.hash;
 
 import com.koloboke.collect.impl.*;
+import com.koloboke.collect.map.*;
 import com.koloboke.collect.map.hash.HashByteShortMap;
 import javax.annotation.Nonnull;
 
 
 public abstract class MutableDHashSeparateKVByteShortMapSO/*<>*/
         extends MutableDHashSeparateKVByteKeyMap/* if obj key //<K>// endif */
-        implements HashByteShortMap/*<>*/, InternalByteShortMapOps/*<>*/, SeparateKVByteShortDHash {
+        implements HashByteShortMap/*<>*/, InternalByteShortMapOps/*<>*/,
+        SeparateKVByteShortDHash/* if !(obj key) */, ByteShortMapBulkTransfer/* endif */ {
 
     /* if Separate kv */
     /* bits */short[] values;
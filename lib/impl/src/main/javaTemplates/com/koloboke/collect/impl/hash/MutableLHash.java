@@ -23,12 +23,15 @@
 package com.koloboke.collect.impl.hash;
 
 import com.koloboke.collect.hash.HashConfig;
+import com.koloboke.collect.hash.ShrinkPolicy;
 
 import static com.koloboke.collect.impl.Maths.isPowerOf2;
 import static com.koloboke.collect.impl.hash.LHashCapacities.*;
+import static com.koloboke.collect.impl.hash.RehashListener.Cause.*;
 
 
-public abstract class MutableLHash extends HashWithoutRemovedSlots implements LHash {
+public abstract class MutableLHash extends HashWithoutRemovedSlots
+        implements LHash/* if true instrumented //, InstrumentedHash// endif */ {
 
     /* if LHash hash */
     static void verifyConfig(HashConfig config) {
@@ -56,8 +59,43 @@ public abstract class MutableLHash extends HashWithoutRemovedSlots implements LH
 
     private int maxSize;
 
+    /* if Mutable mutability */
+    /**
+     * The size, below which the hash is sparser than the min load, or 0 if the hash shouldn't
+     * shrink on removals.
+     */
+    private int minSize;
+
+    private int removesBelowMinLoad;
+
+    private long belowMinLoadSince;
+    /* endif */
+
     /* if true concurrentModificationChecked */private int modCount = 0;/* endif */
 
+    private int rehashCount = 0;
+
+    private long rehashNanos = 0L;
+
+    /**
+     * The sum of probe lengths minus one, i. e. slots inspected beyond the home slot, of the keys
+     * inserted since the last rehash. Kept by the insert hooks for {@link #adaptLoad()}, only if
+     * the config is adaptive.
+     */
+    private long insertCollisions = 0L;
+
+    private long insertsSinceRehash = 0L;
+
+    /* if true instrumented */
+    long lookups = 0L;
+
+    long probes = 0L;
+
+    private long inserts = 0L;
+
+    private long removes = 0L;
+    /* endif */
+
 
     /////////////////////////////
     // Getters
@@ -87,6 +125,38 @@ public abstract class MutableLHash extends HashWithoutRemovedSlots implements LH
     }
     /* endif */
 
+    @Override
+    public final int rehashCount() {
+        return rehashCount;
+    }
+
+    @Override
+    public final long rehashNanos() {
+        return rehashNanos;
+    }
+
+    /* if true instrumented */
+    @Override
+    public final long lookups() {
+        return lookups;
+    }
+
+    @Override
+    public final long probes() {
+        return probes;
+    }
+
+    @Override
+    public final long inserts() {
+        return inserts;
+    }
+
+    @Override
+    public final long removes() {
+        return removes;
+    }
+    /* endif */
+
 
     ////////////////////////
     // Initialization and construction operations
@@ -96,6 +166,7 @@ public abstract class MutableLHash extends HashWithoutRemovedSlots implements LH
         size = hash.size();
         int capacity = hash.capacity();
         maxSize = maxSize(capacity);
+        /* if Mutable mutability */minSize = minSize(capacity);/* endif */
     }
 
     final void init(HashConfigWrapper configWrapper, int size) {
@@ -108,9 +179,19 @@ public abstract class MutableLHash extends HashWithoutRemovedSlots implements LH
     private void internalInit(int capacity) {
         /* if LHash hash */assert isPowerOf2(capacity);/* endif */
         maxSize = maxSize(capacity);
+        /* if Mutable mutability */
+        minSize = minSize(capacity);
+        removesBelowMinLoad = 0;
+        /* endif */
         allocateArrays(capacity);
     }
 
+    /* if Mutable mutability */
+    private int minSize(int capacity) {
+        return hashConfig().getShrinkPolicy() != null ? configWrapper.minSize(capacity) : 0;
+    }
+    /* endif */
+
     private int maxSize(int capacity) {
         // No sense in trying to rehash after each insertion
         // if the capacity is already reached the limit.
@@ -140,11 +221,29 @@ public abstract class MutableLHash extends HashWithoutRemovedSlots implements LH
      *  3. Move elements, entries, etc. from the old arrays to the new ones.
      *
      * <p>Subclasses should implement, but MUST NOT call this method. This method is called
-     * in {@code MutableLHash} from {@link #postInsertHook()}, {@link #ensureCapacity(long)}
-     * and {@link #shrink()} methods.
+     * in {@code MutableLHash} from {@link #postInsertHook(int)}, {@link #ensureCapacity(long)}
+     * and {@link #shrink()} methods, via {@link #timedRehash(int, RehashListener.Cause)}.
      */
     abstract void rehash(int newCapacity);
 
+    /**
+     * Calls {@link #rehash(int)}, accounts it in {@link #rehashCount()} and
+     * {@link #rehashNanos()} and notifies {@link HashInstrumentation#rehashListener()}.
+     */
+    private void timedRehash(int newCapacity, RehashListener.Cause cause) {
+        int oldCapacity = capacity();
+        long start = System.nanoTime();
+        rehash(newCapacity);
+        long duration = System.nanoTime() - start;
+        rehashNanos += duration;
+        rehashCount++;
+        insertCollisions = 0L;
+        insertsSinceRehash = 0L;
+        RehashListener listener = HashInstrumentation.rehashListener();
+        if (listener != null)
+            listener.rehashed(this, cause, oldCapacity, newCapacity, 0, duration);
+    }
+
     /**
      * This method just increments modification count (see {@link #modCount()})
      * and calls {@link #internalInit(int)}. Should be called by subclasses
@@ -180,7 +279,7 @@ public abstract class MutableLHash extends HashWithoutRemovedSlots implements LH
     public boolean shrink() {
         int newCapacity = targetCapacity(size);
         if (newCapacity < capacity()) {
-            rehash(newCapacity);
+            timedRehash(newCapacity, SHRINK);
             return true;
         } else {
             return false;
@@ -189,7 +288,7 @@ public abstract class MutableLHash extends HashWithoutRemovedSlots implements LH
 
     private boolean tryRehashForExpansion(int newCapacity) {
         if (newCapacity > capacity()) {
-            rehash(newCapacity);
+            timedRehash(newCapacity, GROWTH);
             return true;
         } else {
             return false;
@@ -208,16 +307,52 @@ public abstract class MutableLHash extends HashWithoutRemovedSlots implements LH
 
     /* if Mutable mutability */
     final void postRemoveHook() {
+        /* if true instrumented */removes++;/* endif */
         size--;
     }
+
+    /**
+     * Should be called after removal of a key by a query or update method. Unlike
+     * {@link #postRemoveHook()}, which is also called from iterators and bulk operations,
+     * this method could rehash the table, according to
+     * the {@linkplain HashConfig#getShrinkPolicy() shrink policy}.
+     */
+    final void tryShrinkOnRemove() {
+        if (size < minSize) {
+            shrinkOnRemove();
+        } else if (removesBelowMinLoad != 0) {
+            removesBelowMinLoad = 0;
+        }
+    }
+
+    private void shrinkOnRemove() {
+        ShrinkPolicy policy = hashConfig().getShrinkPolicy();
+        int removes = removesBelowMinLoad;
+        long delayNanos = policy.getDelayNanos();
+        if (removes == 0 && delayNanos > 0L)
+            belowMinLoadSince = System.nanoTime();
+        if (removes < policy.getRemovals())
+            removesBelowMinLoad = ++removes;
+        if (removes < policy.getRemovals() ||
+                (delayNanos > 0L && System.nanoTime() - belowMinLoadSince < delayNanos)) {
+            return;
+        }
+        int newCapacity = targetCapacity(size);
+        if (capacity() - newCapacity >= Math.max(policy.getMinReclaimedSlots(), 1))
+            timedRehash(newCapacity, SHRINK);
+    }
     /* endif */
 
-    final void postInsertHook() {
+    final void postInsertHook(int collisions) {
+        /* if true instrumented */inserts++;/* endif */
+        if (configWrapper.adaptive())
+            countInsertCollisions(collisions);
         if (++size > maxSize) {
+            adaptLoad();
             /* if LHash hash */
             int capacity = capacity();
             if (!isMaxCapacity(capacity)) {
-                rehash(capacity << 1);
+                timedRehash(capacity << 1, GROWTH);
             }
             /* elif !(LHash hash) */
             tryRehashForExpansion(grownCapacity());
@@ -225,6 +360,30 @@ public abstract class MutableLHash extends HashWithoutRemovedSlots implements LH
         }
     }
 
+    /**
+     * Accounts the probe length of an inserted key for {@link #adaptLoad()}. Inserts into hashes
+     * with non-adaptive configs don't call this method, and as long as they don't, the JIT
+     * compiler drops the collision counting in the inlined probe loops as dead code.
+     */
+    private void countInsertCollisions(int collisions) {
+        insertCollisions += collisions;
+        insertsSinceRehash++;
+    }
+
+    /**
+     * If the {@linkplain HashConfig#getTargetProbeLength() adaptive load} is configured, tunes
+     * the load the table grows at next time, before it grows, by the average probe length of
+     * the keys inserted since the last rehash. These keys are inserted at the highest loads
+     * the table goes through, so they are the most sensitive to the load.
+     */
+    private void adaptLoad() {
+        HashConfigWrapper configWrapper = this.configWrapper;
+        if (configWrapper.adaptive() && insertsSinceRehash > 0L) {
+            this.configWrapper = configWrapper.adapt(
+                    1.0 + (double) insertCollisions / (double) insertsSinceRehash);
+        }
+    }
+
     /**
      * LongLong, LongDouble, DoubleDouble and DoubleLong maps might use array of doubled size
      * as table to layout keys and values in parallel. They should override this method to return
@@ -74,6 +74,11 @@ public abstract class MutableSeparateKVByteDHashGO/*<>*/
         /* endif */
     }
 
+    @Override
+    public HashStats hashStats() {
+        /* template HashStats */ throw new NotGenerated(); /* endtemplate */
+    }
+
     public void forEach(Consumer<? super Byte> action) {
         /* template ForEach */
     }
@@ -162,6 +167,20 @@ public abstract class MutableSeparateKVByteDHashGO/*<>*/
     public byte[] toArray(byte[] a) {
         /* template ToPrimitiveArray */ throw new NotGenerated(); /* endtemplate */
     }
+
+    @Nonnull
+    public java.nio.ByteBuffer toBuffer(java.nio.ByteBuffer buffer) {
+        /* template ToBuffer */ throw new NotGenerated(); /* endtemplate */
+    }
+
+    public void writeTo(/* with int elem */java.nio.ByteBuffer/* endwith */ buffer) {
+        /* template WriteTo */ throw new NotGenerated(); /* endtemplate */
+    }
+
+    public void writeTo(/* with int elem */java.nio.channels.WritableByteChannel/* endwith */ channel)
+            throws java.io.IOException {
+        /* template WriteToChannel */ throw new NotGenerated(); /* endtemplate */
+    }
     /* endif */
 
 
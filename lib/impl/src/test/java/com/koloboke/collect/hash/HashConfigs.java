@@ -16,6 +16,7 @@
 
 package com.koloboke.collect.hash;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -29,5 +30,17 @@ public final class HashConfigs {
         );
     }
 
+    /**
+     * Returns the given factory, configured with each of the {@link #all()} hash configs, e. g.
+     * to ensure that both LHash and QHash containers are tested.
+     */
+    public static <F extends HashContainerFactory<F>> List<F> factories(F factory) {
+        List<F> factories = new ArrayList<F>();
+        for (HashConfig config : all()) {
+            factories.add(factory.withHashConfig(config));
+        }
+        return factories;
+    }
+
     private HashConfigs() {}
 }
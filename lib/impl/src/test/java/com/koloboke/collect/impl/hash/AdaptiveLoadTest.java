@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.impl.hash;
+
+import com.koloboke.collect.hash.HashConfig;
+import com.koloboke.collect.hash.ShrinkPolicy;
+import com.koloboke.collect.set.hash.HashIntSet;
+import com.koloboke.collect.set.hash.HashIntSets;
+import com.koloboke.collect.set.hash.HashObjSets;
+import org.junit.Test;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+public class AdaptiveLoadTest {
+
+    private static void checkAdapted(Set<?> set, HashConfig config) {
+        Hash hash = (Hash) set;
+        assertSame(config, hash.hashConfig());
+        double currentMaxLoad = hash.configWrapper().currentMaxLoad();
+        assertTrue(currentMaxLoad < config.getMaxLoad());
+        assertTrue(currentMaxLoad >= config.getTargetLoad());
+        assertTrue(currentMaxLoad >= config.getMinLoad() * config.getGrowthFactor());
+        assertTrue(hash.currentLoad() <= currentMaxLoad);
+    }
+
+    @Test
+    public void testLinearProbingSetGrowsSparser() {
+        // no keys could be found in the first slot on average, so the load goes down. The min
+        // load is lowered, because with the default loads the table, grown at a lower load
+        // than the max load, would be sparser than the min load
+        HashConfig config = HashConfig.getDefault().withMinLoad(0.2).withTargetProbeLength(1.0);
+        Set<Integer> set = HashIntSets.getDefaultFactory().withHashConfig(config).newMutableSet();
+        for (int i = 0; i < 100000; i++) {
+            set.add(i * 7);
+        }
+        checkAdapted(set, config);
+    }
+
+    @Test
+    public void testQuadraticProbingSetGrowsSparser() {
+        HashConfig config = HashConfig.getDefault().withGrowthFactor(1.5)
+                .withTargetProbeLength(1.0);
+        Set<String> set = HashObjSets.getDefaultFactory().withHashConfig(config).newUpdatableSet();
+        for (int i = 0; i < 100000; i++) {
+            set.add(String.valueOf(i));
+        }
+        checkAdapted(set, config);
+    }
+
+    @Test
+    public void testAdaptiveWithShrinkPolicy() {
+        HashConfig config = HashConfig.getDefault().withMinLoad(0.3).withTargetProbeLength(1.0)
+                .withShrinkPolicy(ShrinkPolicy.belowMinLoad());
+        HashIntSet set = HashIntSets.getDefaultFactory().withHashConfig(config).newMutableSet();
+        Hash hash = (Hash) set;
+        int key = 0;
+        for (; key < 100000; key++) {
+            set.add(key * 7);
+        }
+        int rehashCount = hash.rehashCount();
+        while (hash.rehashCount() == rehashCount) {
+            set.add(7 * key++);
+        }
+        checkAdapted(set, config);
+        // right after growth, the table shouldn't be shrunk back by removals and grown again
+        // by insertions
+        rehashCount = hash.rehashCount();
+        for (int i = 0; i < 1000; i++) {
+            set.removeInt(7 * i);
+            set.add(7 * key++);
+        }
+        assertEquals(rehashCount, hash.rehashCount());
+    }
+
+    @Test
+    public void testNotAdaptive() {
+        HashConfig config = HashConfig.getDefault();
+        Set<Integer> set = HashIntSets.getDefaultFactory().withHashConfig(config).newMutableSet();
+        for (int i = 0; i < 100000; i++) {
+            set.add(i);
+        }
+        assertEquals(config.getMaxLoad(),
+                ((Hash) set).configWrapper().currentMaxLoad(), 0.0);
+    }
+}
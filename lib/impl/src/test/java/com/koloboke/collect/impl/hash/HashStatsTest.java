@@ -0,0 +1,124 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.impl.hash;
+
+import com.koloboke.collect.hash.HashConfig;
+import com.koloboke.collect.map.hash.HashLongObjMap;
+import com.koloboke.collect.map.hash.HashLongObjMaps;
+import com.koloboke.collect.set.hash.HashIntSet;
+import com.koloboke.collect.set.hash.HashIntSets;
+import com.koloboke.collect.set.hash.HashObjSet;
+import com.koloboke.collect.set.hash.HashObjSets;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class HashStatsTest {
+
+    private static void checkInvariants(Hash hash, HashStats stats) {
+        assertEquals(hash.size(), stats.size());
+        assertEquals(hash.capacity(), stats.capacity());
+        assertEquals(hash.freeSlots(), stats.freeSlots());
+        assertEquals(hash.removedSlots(), stats.removedSlots());
+        assertEquals(hash.rehashCount(), stats.rehashCount());
+        int clusters = 0;
+        int[] histogram = stats.clusterLengthHistogram();
+        for (int bucket : histogram) {
+            clusters += bucket;
+        }
+        assertEquals(stats.clusters(), clusters);
+        if (hash.size() == 0) {
+            assertEquals(0, histogram.length);
+            assertEquals(0, stats.maxProbeLength());
+            assertEquals(0, stats.maxClusterLength());
+            return;
+        }
+        assertTrue(histogram[histogram.length - 1] > 0);
+        assertTrue(1 << (histogram.length - 1) <= stats.maxClusterLength());
+        assertTrue(stats.maxClusterLength() < 1 << histogram.length);
+        assertTrue(stats.maxClusterLength() <= hash.size());
+        assertTrue(stats.averageProbeLength() >= 1.0);
+        assertTrue(stats.averageProbeLength() <= stats.maxProbeLength());
+        assertTrue(stats.maxProbeLength() <= hash.capacity());
+    }
+
+    @Test
+    public void testLinearProbingSet() {
+        HashIntSet set = HashIntSets.newUpdatableSet(10);
+        Random r = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            set.add(r.nextInt());
+        }
+        Hash hash = (Hash) set;
+        HashStats stats = hash.hashStats();
+        checkInvariants(hash, stats);
+        assertTrue(stats.rehashCount() > 0);
+        assertTrue(stats.rehashNanos() > 0L);
+        // with linear probing, a lookup never leaves the cluster of the key
+        assertTrue(stats.maxProbeLength() <= stats.maxClusterLength());
+        assertEquals(0.0, stats.tombstoneRatio(), 0.0);
+    }
+
+    @Test
+    public void testSetWithRemovedSlots() {
+        // growth factor other than 2.0 leads to quadratic probing, which leaves tombstones
+        HashObjSet<String> set = HashObjSets.getDefaultFactory()
+                .withHashConfig(HashConfig.getDefault().withGrowthFactor(1.5)).newMutableSet();
+        for (int i = 0; i < 10000; i++) {
+            set.add(String.valueOf(i));
+        }
+        for (int i = 0; i < 10000; i += 3) {
+            set.remove(String.valueOf(i));
+        }
+        Hash hash = (Hash) set;
+        HashStats stats = hash.hashStats();
+        checkInvariants(hash, stats);
+        assertTrue(stats.removedSlots() > 0);
+        assertEquals((double) hash.removedSlots() / hash.capacity(), stats.tombstoneRatio(), 0.0);
+        set.shrink();
+        stats = hash.hashStats();
+        checkInvariants(hash, stats);
+        assertEquals(0, stats.removedSlots());
+    }
+
+    @Test
+    public void testDoubleSizedParallelMap() {
+        HashLongObjMap<String> map = HashLongObjMaps.newUpdatableMap();
+        for (long i = 0; i < 10000; i++) {
+            map.put(i * 31, "");
+        }
+        Hash hash = (Hash) map;
+        HashStats stats = hash.hashStats();
+        checkInvariants(hash, stats);
+        assertTrue(stats.maxProbeLength() <= stats.maxClusterLength());
+    }
+
+    @Test
+    public void testEmptyAndImmutable() {
+        Hash empty = (Hash) HashIntSets.newMutableSet();
+        checkInvariants(empty, empty.hashStats());
+        Hash immutable = (Hash) HashIntSets.newImmutableSet(new int[] {1, 2, 3});
+        HashStats stats = immutable.hashStats();
+        checkInvariants(immutable, stats);
+        assertEquals(0, stats.rehashCount());
+        assertEquals(0L, stats.rehashNanos());
+    }
+}
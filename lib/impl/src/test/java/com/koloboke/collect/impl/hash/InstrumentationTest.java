@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.impl.hash;
+
+import com.koloboke.collect.hash.HashConfig;
+import com.koloboke.collect.map.hash.HashIntIntMap;
+import com.koloboke.collect.map.hash.HashIntIntMaps;
+import com.koloboke.collect.set.hash.HashObjSet;
+import com.koloboke.collect.set.hash.HashObjSets;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+
+public class InstrumentationTest {
+
+    @After
+    public void removeListener() {
+        HashInstrumentation.setRehashListener(null);
+    }
+
+    /**
+     * Runs only against the library built with {@code -PlibInstrumented=true}.
+     */
+    @Test
+    public void testCounters() {
+        HashIntIntMap map = HashIntIntMaps.newMutableMap();
+        assumeTrue(map instanceof InstrumentedHash);
+        InstrumentedHash hash = (InstrumentedHash) map;
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        long lookupsBeforeGets = hash.lookups();
+        long probesBeforeGets = hash.probes();
+        for (int i = 0; i < 1000; i++) {
+            map.get(i);
+        }
+        // a successful search of a key inspects the key's probe length slots, probes() counts
+        // all of them but the first one
+        HashStats stats = hash.hashStats();
+        long expectedProbes = Math.round(stats.averageProbeLength() * stats.size()) - stats.size();
+        assertTrue("keys should collide, to check anything", expectedProbes > 0);
+        assertEquals(1000, hash.lookups() - lookupsBeforeGets);
+        assertEquals(expectedProbes, hash.probes() - probesBeforeGets);
+        for (int i = 0; i < 100; i++) {
+            map.remove(i);
+        }
+        assertEquals(1000, hash.inserts());
+        assertEquals(100, hash.removes());
+        assertTrue(hash.lookups() >= 2100);
+    }
+
+    @Test
+    public void testRehashListener() {
+        HashObjSet<Integer> set = HashObjSets.getDefaultFactory()
+                .withHashConfig(HashConfig.getDefault().withGrowthFactor(1.5)).newMutableSet();
+        final List<RehashListener.Cause> causes = new ArrayList<RehashListener.Cause>();
+        HashInstrumentation.setRehashListener(new RehashListener() {
+            @Override
+            public void rehashed(Hash hash, Cause cause, int oldCapacity, int newCapacity,
+                    int removedSlots, long durationNanos) {
+                assertEquals(newCapacity, hash.capacity());
+                assertEquals(0, hash.removedSlots());
+                assertTrue(durationNanos >= 0);
+                if (cause == Cause.GROWTH) {
+                    assertTrue(newCapacity > oldCapacity);
+                } else if (cause == Cause.PURGE) {
+                    assertTrue(removedSlots > 0);
+                }
+                causes.add(cause);
+            }
+        });
+        for (int i = 0; i < 1000; i++) {
+            set.add(i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            set.remove(i);
+            set.add(i + 1000);
+        }
+        set.clear();
+        set.shrink();
+        assertEquals(((Hash) set).rehashCount(), causes.size());
+        assertTrue(causes.contains(RehashListener.Cause.GROWTH));
+        assertTrue(causes.contains(RehashListener.Cause.PURGE));
+        assertEquals(RehashListener.Cause.SHRINK, causes.get(causes.size() - 1));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.koloboke.collect.impl.hash;
+
+import com.koloboke.collect.hash.HashConfig;
+import com.koloboke.collect.hash.ShrinkPolicy;
+import com.koloboke.collect.map.hash.HashIntIntMap;
+import com.koloboke.collect.map.hash.HashIntIntMaps;
+import com.koloboke.collect.set.hash.HashObjSet;
+import com.koloboke.collect.set.hash.HashObjSets;
+import org.junit.Test;
+
+import java.util.Iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class ShrinkPolicyTest {
+
+    private static final int SIZE = 100000;
+
+    private static HashIntIntMap newMap(ShrinkPolicy policy) {
+        HashIntIntMap map = HashIntIntMaps.getDefaultFactory()
+                .withHashConfig(HashConfig.getDefault().withShrinkPolicy(policy)).newMutableMap();
+        for (int i = 0; i < SIZE; i++) {
+            map.put(i, i);
+        }
+        return map;
+    }
+
+    @Test
+    public void testShrinkBelowMinLoad() {
+        HashIntIntMap map = newMap(ShrinkPolicy.belowMinLoad());
+        Hash hash = (Hash) map;
+        int fullCapacity = hash.capacity();
+        int rehashCount = hash.rehashCount();
+        for (int i = 0; i < SIZE - 10; i++) {
+            map.remove(i);
+        }
+        assertTrue(hash.capacity() < fullCapacity / 1000);
+        // each shrink halves the table at least, thanks to the gap between min and target loads
+        assertTrue(hash.rehashCount() - rehashCount <= 20);
+        for (int i = SIZE - 10; i < SIZE; i++) {
+            assertEquals(i, map.get(i));
+        }
+    }
+
+    @Test
+    public void testNoPolicy() {
+        HashIntIntMap map = newMap(null);
+        Hash hash = (Hash) map;
+        int fullCapacity = hash.capacity();
+        for (int i = 0; i < SIZE; i++) {
+            map.remove(i);
+        }
+        assertEquals(fullCapacity, hash.capacity());
+    }
+
+    @Test
+    public void testRemovalsInARow() {
+        HashIntIntMap map = newMap(ShrinkPolicy.belowMinLoad().withRemovals(1000));
+        Hash hash = (Hash) map;
+        int fullCapacity = hash.capacity();
+        int minSize = hash.configWrapper().minSize(fullCapacity);
+        int i = 0;
+        for (; i < SIZE - minSize; i++) {
+            map.remove(i);
+        }
+        // 999 removals below the min load
+        for (int j = 0; j < 999; j++, i++) {
+            map.remove(i);
+        }
+        assertEquals(fullCapacity, hash.capacity());
+        map.remove(i);
+        assertTrue(hash.capacity() < fullCapacity);
+    }
+
+    @Test
+    public void testMinReclaimedSlots() {
+        HashIntIntMap map = newMap(ShrinkPolicy.belowMinLoad().withMinReclaimedSlots(SIZE * 10));
+        Hash hash = (Hash) map;
+        int fullCapacity = hash.capacity();
+        for (int i = 0; i < SIZE; i++) {
+            map.remove(i);
+        }
+        assertEquals(fullCapacity, hash.capacity());
+    }
+
+    @Test
+    public void testIteratorRemovalDoesNotShrink() {
+        // growth factor other than 2.0 leads to quadratic probing
+        HashObjSet<String> set = HashObjSets.getDefaultFactory()
+                .withHashConfig(HashConfig.getDefault().withGrowthFactor(1.5)
+                        .withShrinkPolicy(ShrinkPolicy.belowMinLoad()))
+                .newMutableSet();
+        for (int i = 0; i < SIZE; i++) {
+            set.add(String.valueOf(i));
+        }
+        Hash hash = (Hash) set;
+        int fullCapacity = hash.capacity();
+        for (Iterator<String> it = set.iterator(); it.hasNext();) {
+            it.next();
+            it.remove();
+        }
+        assertEquals(fullCapacity, hash.capacity());
+        set.add("a");
+        set.add("b");
+        set.remove("a");
+        assertTrue(hash.capacity() < fullCapacity);
+        assertEquals(1, set.size());
+        assertTrue(set.contains("b"));
+    }
+}
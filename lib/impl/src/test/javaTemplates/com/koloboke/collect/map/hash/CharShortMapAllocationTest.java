@@ -0,0 +1,140 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.map.hash;
+
+import com.koloboke.collect.hash.HashConfigs;
+import com.koloboke.collect.map.CharShortCursor;
+import com.koloboke.function.CharShortConsumer;
+import org.junit.Test;
+
+import java.util.List;
+
+import static com.koloboke.collect.testing.Allocations.assertNoAllocation;
+
+
+/**
+ * Primitive operations of Mutable, Updatable and Immutable maps, LHash and QHash, must not
+ * allocate.
+ */
+public class CharShortMapAllocationTest {
+
+    /** Small enough for keys of all types */
+    private static final int SIZE = 100;
+
+    private static final List<HashCharShortMapFactory> FACTORIES =
+            HashConfigs.factories(HashCharShortMaps.getDefaultFactory());
+
+    private static HashCharShortMap newMutableMap(HashCharShortMapFactory factory) {
+        HashCharShortMap map = factory.newMutableMap(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            map.put((char) i, (short) i);
+        }
+        return map;
+    }
+
+    /** Returns Mutable and Updatable maps */
+    private static HashCharShortMap[] updatableMaps(HashCharShortMapFactory factory) {
+        HashCharShortMap mutable = newMutableMap(factory);
+        return new HashCharShortMap[] {mutable, factory.newUpdatableMap(mutable)};
+    }
+
+    /** Returns Mutable, Updatable and Immutable maps */
+    private static HashCharShortMap[] allMaps(HashCharShortMapFactory factory) {
+        HashCharShortMap mutable = newMutableMap(factory);
+        return new HashCharShortMap[] {mutable, factory.newUpdatableMap(mutable),
+                factory.newImmutableMap(mutable)};
+    }
+
+    private static String name(HashCharShortMap map, String operation) {
+        return map.getClass().getName() + "." + operation;
+    }
+
+    private long sink = 0L;
+
+    @Test
+    public void testGet() {
+        for (HashCharShortMapFactory factory : FACTORIES) {
+            for (HashCharShortMap map : allMaps(factory)) {
+                assertNoAllocation(name(map, "get"), SIZE, () -> {
+                    for (int i = 0; i < SIZE; i++) {
+                        sink += (long) map.get((char) i);
+                    }
+                });
+            }
+        }
+    }
+
+    @Test
+    public void testPut() {
+        for (HashCharShortMapFactory factory : FACTORIES) {
+            for (HashCharShortMap map : updatableMaps(factory)) {
+                assertNoAllocation(name(map, "put"), SIZE, () -> {
+                    for (int i = 0; i < SIZE; i++) {
+                        sink += (long) map.put((char) i, (short) i);
+                    }
+                });
+            }
+            HashCharShortMap map = newMutableMap(factory);
+            assertNoAllocation(name(map, "put after clear"), SIZE, () -> {
+                map.clear();
+                for (int i = 0; i < SIZE; i++) {
+                    map.put((char) i, (short) i);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testAddValue() {
+        for (HashCharShortMapFactory factory : FACTORIES) {
+            for (HashCharShortMap map : updatableMaps(factory)) {
+                assertNoAllocation(name(map, "addValue"), SIZE, () -> {
+                    for (int i = 0; i < SIZE; i++) {
+                        sink += (long) map.addValue((char) i, (short) 1);
+                    }
+                });
+            }
+        }
+    }
+
+    @Test
+    public void testForEach() {
+        CharShortConsumer sum = (k, v) -> sink += (long) k + (long) v;
+        for (HashCharShortMapFactory factory : FACTORIES) {
+            for (HashCharShortMap map : allMaps(factory)) {
+                assertNoAllocation(name(map, "forEach"), SIZE, () -> map.forEach(sum));
+            }
+        }
+    }
+
+    @Test
+    public void testCursor() {
+        for (HashCharShortMapFactory factory : FACTORIES) {
+            for (HashCharShortMap map : allMaps(factory)) {
+                assertNoAllocation(name(map, "cursor"), SIZE, () -> {
+                    for (CharShortCursor cur = map.cursor(); cur.moveNext();) {
+                        sink += (long) cur.key() + (long) cur.value();
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.set.hash;
+
+import com.koloboke.collect.CharCursor;
+import com.koloboke.collect.hash.HashConfigs;
+import com.koloboke.function.CharConsumer;
+import org.junit.Test;
+
+import java.util.List;
+
+import static com.koloboke.collect.testing.Allocations.assertNoAllocation;
+
+
+/**
+ * Primitive operations of Mutable, Updatable and Immutable sets, LHash and QHash, must not
+ * allocate.
+ */
+public class CharSetAllocationTest {
+
+    /** Small enough for elements of all types */
+    private static final int SIZE = 100;
+
+    private static final List<HashCharSetFactory> FACTORIES =
+            HashConfigs.factories(HashCharSets.getDefaultFactory());
+
+    private static HashCharSet newMutableSet(HashCharSetFactory factory) {
+        HashCharSet set = factory.newMutableSet(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            set.add((char) i);
+        }
+        return set;
+    }
+
+    /** Returns Mutable and Updatable sets */
+    private static HashCharSet[] updatableSets(HashCharSetFactory factory) {
+        HashCharSet mutable = newMutableSet(factory);
+        return new HashCharSet[] {mutable, factory.newUpdatableSet(mutable)};
+    }
+
+    /** Returns Mutable, Updatable and Immutable sets */
+    private static HashCharSet[] allSets(HashCharSetFactory factory) {
+        HashCharSet mutable = newMutableSet(factory);
+        return new HashCharSet[] {mutable, factory.newUpdatableSet(mutable),
+                factory.newImmutableSet(mutable)};
+    }
+
+    private static String name(HashCharSet set, String operation) {
+        return set.getClass().getName() + "." + operation;
+    }
+
+    private long sink = 0L;
+
+    @Test
+    public void testContains() {
+        for (HashCharSetFactory factory : FACTORIES) {
+            for (HashCharSet set : allSets(factory)) {
+                assertNoAllocation(name(set, "contains"), SIZE, () -> {
+                    for (int i = 0; i < SIZE; i++) {
+                        if (set.contains((char) i))
+                            sink++;
+                    }
+                });
+            }
+        }
+    }
+
+    @Test
+    public void testAdd() {
+        for (HashCharSetFactory factory : FACTORIES) {
+            for (HashCharSet set : updatableSets(factory)) {
+                assertNoAllocation(name(set, "add"), SIZE, () -> {
+                    for (int i = 0; i < SIZE; i++) {
+                        if (set.add((char) i))
+                            sink++;
+                    }
+                });
+            }
+            HashCharSet set = newMutableSet(factory);
+            assertNoAllocation(name(set, "add after clear"), SIZE, () -> {
+                set.clear();
+                for (int i = 0; i < SIZE; i++) {
+                    set.add((char) i);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testForEach() {
+        CharConsumer sum = e -> sink += (long) e;
+        for (HashCharSetFactory factory : FACTORIES) {
+            for (HashCharSet set : allSets(factory)) {
+                assertNoAllocation(name(set, "forEach"), SIZE, () -> set.forEach(sum));
+            }
+        }
+    }
+
+    @Test
+    public void testCursor() {
+        for (HashCharSetFactory factory : FACTORIES) {
+            for (HashCharSet set : allSets(factory)) {
+                assertNoAllocation(name(set, "cursor"), SIZE, () -> {
+                    for (CharCursor cur = set.cursor(); cur.moveNext();) {
+                        sink += (long) cur.elem();
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/* with char|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.set.hash;
+
+import com.koloboke.collect.CharBulkTransfer;
+import com.koloboke.collect.hash.HashConfigs;
+import com.koloboke.collect.impl.ChannelIO;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Round trips of sets, which span several chunks of {@link ChannelIO}, reuse of the chunks and
+ * sizing of the tables on reads. Behaviour of each operation on small collections is covered by
+ * {@code CharCollectionBulkTransferTester}. {@code byte} sets couldn't be large enough.
+ */
+public class CharSetByteIOTest {
+
+    private static final int ELEM_BYTES = Character.SIZE / 8;
+
+    /** Elements of two chunks and a bit, not a multiple of the chunk */
+    private static final int SIZE = 2 * ChannelIO.CHUNK_BYTES / ELEM_BYTES + 1;
+
+    private static final List<HashCharSetFactory> FACTORIES =
+            HashConfigs.factories(HashCharSets.getDefaultFactory());
+
+    private static CharBulkTransfer bulk(HashCharSet set) {
+        assertTrue(set instanceof CharBulkTransfer);
+        return (CharBulkTransfer) set;
+    }
+
+    private static HashCharSet largeSet(HashCharSetFactory factory) {
+        HashCharSet set = factory.newMutableSet(SIZE);
+        for (int i = 0; set.size() < SIZE; i++) {
+            set.add((char) i);
+        }
+        return set;
+    }
+
+    /**
+     * Returns the given bytes in reads of 1 to 7 bytes, so that elements are split between
+     * reads at every possible offset.
+     */
+    private static ReadableByteChannel shortReads(final ByteBuffer bytes) {
+        return new ReadableByteChannel() {
+            private int nextRead = 1;
+
+            @Override
+            public int read(ByteBuffer dst) {
+                if (!bytes.hasRemaining())
+                    return -1;
+                int read = Math.min(Math.min(nextRead, dst.remaining()), bytes.remaining());
+                nextRead = nextRead % 7 + 1;
+                ByteBuffer slice = bytes.duplicate();
+                slice.limit(slice.position() + read);
+                dst.put(slice);
+                bytes.position(bytes.position() + read);
+                return read;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private static void assertChunkCached(ByteBuffer chunk) {
+        ByteBuffer cached = ChannelIO.acquireChunk();
+        ChannelIO.releaseChunk(cached);
+        assertSame("the chunk should be returned to the cache", chunk, cached);
+    }
+
+    @Test
+    public void testLargeBufferRoundTrip() {
+        for (HashCharSetFactory factory : FACTORIES) {
+            HashCharSet set = largeSet(factory);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(SIZE * ELEM_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            bulk(set).writeTo(buffer);
+            buffer.flip();
+            HashCharSet copy = factory.newMutableSet();
+            assertTrue(bulk(copy).readFrom(buffer));
+            assertEquals(set, copy);
+        }
+    }
+
+    @Test
+    public void testLargeChannelRoundTrip() throws IOException {
+        for (HashCharSetFactory factory : FACTORIES) {
+            HashCharSet set = largeSet(factory);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            bulk(set).writeTo(Channels.newChannel(out));
+            byte[] bytes = out.toByteArray();
+            assertEquals(SIZE * ELEM_BYTES, bytes.length);
+            HashCharSet copy = factory.newUpdatableSet();
+            assertTrue(bulk(copy).readFrom(shortReads(ByteBuffer.wrap(bytes))));
+            assertEquals(set, copy);
+        }
+    }
+
+    @Test
+    public void testReadDuplicatesDoesNotGrowTable() {
+        for (HashCharSetFactory factory : FACTORIES) {
+            ByteBuffer buffer = ByteBuffer.allocate(SIZE * ELEM_BYTES);
+            while (buffer.hasRemaining()) {
+                buffer.putChar((char) 1);
+            }
+            buffer.flip();
+            HashCharSet set = factory.newMutableSet();
+            assertTrue(bulk(set).readFrom(buffer));
+            HashCharSet single = factory.newMutableSet();
+            single.add((char) 1);
+            assertEquals(single, set);
+            assertEquals(single.currentLoad(), set.currentLoad(), 0.0);
+        }
+    }
+
+    @Test
+    public void testChunkIsReleasedIfChannelFails() {
+        final ByteBuffer[] chunk = new ByteBuffer[1];
+        for (HashCharSetFactory factory : FACTORIES) {
+            try {
+                bulk(largeSet(factory)).writeTo(new WritableByteChannel() {
+                    @Override
+                    public int write(ByteBuffer src) throws IOException {
+                        chunk[0] = src;
+                        throw new IOException();
+                    }
+
+                    @Override
+                    public boolean isOpen() {
+                        return true;
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                });
+                fail("writeTo() should rethrow the exception of the channel");
+            } catch (IOException expected) {
+                // expected
+            }
+            assertChunkCached(chunk[0]);
+            try {
+                bulk(factory.newMutableSet()).readFrom(new ReadableByteChannel() {
+                    @Override
+                    public int read(ByteBuffer dst) throws IOException {
+                        chunk[0] = dst;
+                        throw new IOException();
+                    }
+
+                    @Override
+                    public boolean isOpen() {
+                        return true;
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                });
+                fail("readFrom() should rethrow the exception of the channel");
+            } catch (IOException expected) {
+                // expected
+            }
+            assertChunkCached(chunk[0]);
+        }
+    }
+}
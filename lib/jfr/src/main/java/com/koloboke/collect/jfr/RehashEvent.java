@@ -0,0 +1,63 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+
+/**
+ * Flight recorder event, committed after a rehash of a Koloboke hash, see
+ * {@link RehashEvents#install()}.
+ */
+@Name("com.koloboke.Rehash")
+@Label("Koloboke Hash Rehash")
+@Category({"Koloboke", "Collections"})
+@Description("Rehash of a Koloboke hash container: growth, shrink or tombstone purge")
+@StackTrace(true)
+public final class RehashEvent extends Event {
+
+    @Label("Cause")
+    @Description("GROWTH, SHRINK or PURGE")
+    String cause;
+
+    @Label("Table Type")
+    @Description("Implementation class of the hash")
+    Class<?> tableType;
+
+    @Label("Size")
+    int size;
+
+    @Label("Old Capacity")
+    int oldCapacity;
+
+    @Label("New Capacity")
+    int newCapacity;
+
+    @Label("Removed Slots")
+    @Description("Number of removed slots (tombstones) before the rehash, purged by it")
+    int removedSlots;
+
+    @Label("Rehash Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long rehashDuration;
+}
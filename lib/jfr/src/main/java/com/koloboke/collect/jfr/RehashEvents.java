@@ -0,0 +1,69 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.koloboke.collect.jfr;
+
+import com.koloboke.collect.impl.hash.Hash;
+import com.koloboke.collect.impl.hash.HashInstrumentation;
+import com.koloboke.collect.impl.hash.RehashListener;
+
+
+/**
+ * Emits {@link RehashEvent}s to Java Flight Recorder. Call {@link #install()} once
+ * on the application startup, then enable {@code com.koloboke.Rehash} event in the recording
+ * settings (it is enabled by default).
+ */
+public final class RehashEvents implements RehashListener {
+
+    private static final RehashEvents INSTANCE = new RehashEvents();
+
+    /**
+     * Sets the rehash listener, which emits {@link RehashEvent}s, replacing the current
+     * listener, if any.
+     *
+     * @see HashInstrumentation#setRehashListener(RehashListener)
+     */
+    public static void install() {
+        HashInstrumentation.setRehashListener(INSTANCE);
+    }
+
+    /**
+     * Removes the rehash listener, if it is set by {@link #install()}.
+     */
+    public static void uninstall() {
+        if (HashInstrumentation.rehashListener() == INSTANCE)
+            HashInstrumentation.setRehashListener(null);
+    }
+
+    private RehashEvents() {}
+
+    @Override
+    public void rehashed(Hash hash, Cause cause, int oldCapacity, int newCapacity,
+            int removedSlots, long durationNanos) {
+        RehashEvent event = new RehashEvent();
+        if (!event.shouldCommit())
+            return;
+        event.cause = cause.name();
+        event.tableType = hash.getClass();
+        event.size = hash.size();
+        event.oldCapacity = oldCapacity;
+        event.newCapacity = newCapacity;
+        event.removedSlots = removedSlots;
+        event.rehashDuration = durationNanos;
+        event.commit();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.koloboke.collect.jfr;
+
+import com.koloboke.collect.hash.HashConfig;
+import com.koloboke.collect.set.hash.HashObjSet;
+import com.koloboke.collect.set.hash.HashObjSets;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class RehashEventsTest {
+
+    @Test
+    public void testRehashEventsAreRecorded() throws Exception {
+        File file = File.createTempFile("koloboke-rehash", ".jfr");
+        file.deleteOnExit();
+        RehashEvents.install();
+        try {
+            Recording recording = new Recording();
+            recording.enable(RehashEvent.class);
+            recording.start();
+            // growth factor other than 2.0 leads to quadratic probing, which leaves tombstones
+            HashObjSet<String> set = HashObjSets.getDefaultFactory()
+                    .withHashConfig(HashConfig.getDefault().withGrowthFactor(1.5))
+                    .newMutableSet();
+            for (int i = 0; i < 1000; i++) {
+                set.add(String.valueOf(i));
+            }
+            for (int i = 0; i < 1000; i++) {
+                set.remove(String.valueOf(i));
+                set.add(String.valueOf(-i - 1));
+            }
+            set.clear();
+            set.shrink();
+            recording.stop();
+            recording.dump(file.toPath());
+            recording.close();
+        } finally {
+            RehashEvents.uninstall();
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file.toPath());
+        Set<String> causes = new HashSet<String>();
+        for (RecordedEvent event : events) {
+            assertEquals("com.koloboke.Rehash", event.getEventType().getName());
+            causes.add(event.getString("cause"));
+            assertTrue(event.getInt("newCapacity") > 0);
+        }
+        assertTrue(causes.contains("GROWTH"));
+        assertTrue(causes.contains("PURGE"));
+        assertTrue(causes.contains("SHRINK"));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.testing;
+
+import junit.framework.AssertionFailedError;
+import org.junit.Assume;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+
+/**
+ * Checks that operations don't allocate, by the number of bytes allocated by the current thread,
+ * reported by HotSpot's {@code com.sun.management.ThreadMXBean}. Tests, using this class, are
+ * skipped on JVMs which don't support thread allocated memory measurement.
+ */
+public final class Allocations {
+
+    private static final int WARMUP_RUNS = 10;
+    private static final int MEASUREMENT_RUNS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS;
+    static {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean &&
+                ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+            THREADS = (com.sun.management.ThreadMXBean) threads;
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            THREADS = null;
+        }
+    }
+
+    private static final Runnable NOTHING = new Runnable() {
+        @Override
+        public void run() {}
+    };
+
+    /**
+     * Returns the number of bytes allocated by the current thread during the given action,
+     * including allocations of the measurement itself.
+     */
+    private static long allocatedBytes(Runnable action) {
+        long threadId = Thread.currentThread().getId();
+        long before = THREADS.getThreadAllocatedBytes(threadId);
+        action.run();
+        return THREADS.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    /**
+     * Returns the minimum number of bytes, allocated by the current thread during a single run
+     * of the given action, out of several runs after warmup.
+     */
+    public static long minAllocatedBytes(Runnable action) {
+        Assume.assumeTrue("Thread allocated memory measurement is not supported",
+                THREADS != null);
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            action.run();
+            NOTHING.run();
+        }
+        long allocated = Long.MAX_VALUE;
+        for (int i = 0; i < MEASUREMENT_RUNS; i++) {
+            long overhead = allocatedBytes(NOTHING);
+            allocated = Math.min(allocated, Math.max(allocatedBytes(action) - overhead, 0L));
+        }
+        return allocated;
+    }
+
+    /**
+     * Asserts that the given action, which performs the given number of operations, allocates
+     * less than a byte per operation. Any allocation in the operations themselves is at least
+     * an object header per operation, whereas objects, allocated once per action (like
+     * a cursor, or a {@code forEach} consumer) are tolerated, if the number of operations
+     * is large enough.
+     *
+     * @param operation the name of the checked operation, for the failure message
+     * @param operations the number of operations, performed by a single run of the action
+     * @param action the action to check
+     */
+    public static void assertNoAllocation(String operation, int operations, Runnable action) {
+        long allocated = minAllocatedBytes(action);
+        if (allocated >= operations) {
+            throw new AssertionFailedError(operation + " allocates: " + allocated +
+                    " bytes per " + operations + " operations");
+        }
+    }
+
+    private Allocations() {}
+}
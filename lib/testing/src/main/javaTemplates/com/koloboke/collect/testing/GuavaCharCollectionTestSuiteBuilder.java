@@ -36,6 +36,7 @@ public class GuavaCharCollectionTestSuiteBuilder/*<>*/
         testers.add(CharCollectionRetainAllTester.class);
         testers.add(CharCollectionRemoveAllTester.class);
         testers.add(CharCollectionContainsAllTester.class);
+        /* if !(obj elem) */testers.add(CharCollectionBulkTransferTester.class);/* endif */
         return testers;
     }
 
@@ -45,6 +45,9 @@ public class GuavaCharShortMapTestSuiteBuilder/*<>*/ extends MapTestSuiteBuilder
         testers.add(CharShortMapCursorTester.class);
         testers.add(CharShortMapRemoveIfTester.class);
         testers.add(CharShortMapMergeTester.class);
+        /* if !(obj key) && !(obj value) */
+        testers.add(CharShortMapBulkTransferTester.class);
+        /* endif */
         return testers;
     }
 
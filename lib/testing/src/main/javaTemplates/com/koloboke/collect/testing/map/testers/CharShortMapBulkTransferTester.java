@@ -0,0 +1,153 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.testing.map.testers;
+
+import com.google.common.collect.testing.features.CollectionSize;
+import com.google.common.collect.testing.features.MapFeature;
+import com.koloboke.collect.map.CharShortCursor;
+import com.koloboke.collect.map.CharShortMapBulkTransfer;
+import com.koloboke.collect.testing.map.AbstractCharShortMapTester;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.testing.features.CollectionSize.ZERO;
+import static com.google.common.collect.testing.features.MapFeature.SUPPORTS_PUT;
+import static com.google.common.collect.testing.features.MapFeature.SUPPORTS_REMOVE;
+
+
+/**
+ * Tests {@link CharShortMapBulkTransfer} operations. Maps, which don't implement
+ * {@code CharShortMapBulkTransfer}, e. g. generated by Koloboke Compile, pass these tests
+ * trivially.
+ *
+ * @see com.koloboke.collect.testing.testers.CharCollectionBulkTransferTester
+ */
+public class CharShortMapBulkTransferTester extends AbstractCharShortMapTester {
+
+    private static final int OFFSET = 3;
+
+    private CharShortMapBulkTransfer bulk() {
+        return getMap() instanceof CharShortMapBulkTransfer ?
+                (CharShortMapBulkTransfer) getMap() : null;
+    }
+
+    private List<Map.Entry<Character, Short>> cursorOrder() {
+        List<Map.Entry<Character, Short>> cursorElements = new ArrayList<>();
+        for (CharShortCursor cur = getMap().cursor(); cur.moveNext();) {
+            cursorElements.add(entry(cur.key(), cur.value()));
+        }
+        return cursorElements;
+    }
+
+    private List<Map.Entry<Character, Short>> exported(
+            char[] keyArray, short[] valueArray, int offset, int size) {
+        List<Map.Entry<Character, Short>> exported = new ArrayList<>();
+        for (int i = offset; i < offset + size; i++) {
+            exported.add(entry(keyArray[i], valueArray[i]));
+        }
+        return exported;
+    }
+
+    /* with No|Some removed */
+    /* if Some removed */
+    @MapFeature.Require(SUPPORTS_REMOVE)
+    @CollectionSize.Require(absent = ZERO)
+    /* endif */
+    public void testExportTo_noRemoved() {
+        /* if Some removed */remove();/* endif */
+        CharShortMapBulkTransfer bulk = bulk();
+        if (bulk == null)
+            return;
+        int size = getMap().size();
+        char[] keyArray = new char[OFFSET + size];
+        short[] valueArray = new short[OFFSET + size];
+        assertEquals(size, bulk.exportTo(keyArray, valueArray, OFFSET));
+        assertEquals("exportTo() order is different from cursor order",
+                cursorOrder(), exported(keyArray, valueArray, OFFSET, size));
+        expectUnchanged();
+    }
+    /* endwith */
+
+    @CollectionSize.Require(absent = ZERO)
+    public void testExportTo_tooSmallArray() {
+        CharShortMapBulkTransfer bulk = bulk();
+        if (bulk == null)
+            return;
+        int size = getMap().size();
+        char[] keyArray = new char[OFFSET + size];
+        short[] valueArray = new short[OFFSET + size - 1];
+        try {
+            bulk.exportTo(keyArray, valueArray, OFFSET);
+            fail("exportTo() into a too small array should throw IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException expected) {
+            // expected
+        }
+        for (char key : keyArray) {
+            assertTrue("exportTo() shouldn't write anything, if an array is too small",
+                    key == (char) 0);
+        }
+    }
+
+    public void testExportTo_negativeOffset() {
+        CharShortMapBulkTransfer bulk = bulk();
+        if (bulk == null)
+            return;
+        int size = getMap().size();
+        try {
+            bulk.exportTo(new char[size], new short[size], -1);
+            fail("exportTo() with negative offset should throw IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException expected) {
+            // expected
+        }
+    }
+
+    @MapFeature.Require(SUPPORTS_PUT)
+    public void testDrainTo_supported() {
+        CharShortMapBulkTransfer bulk = bulk();
+        if (bulk == null)
+            return;
+        List<Map.Entry<Character, Short>> entries = cursorOrder();
+        int size = entries.size();
+        char[] keyArray = new char[size];
+        short[] valueArray = new short[size];
+        assertEquals(size, bulk.drainTo(keyArray, valueArray, 0));
+        assertEquals("drainTo() order is different from cursor order",
+                entries, exported(keyArray, valueArray, 0, size));
+        expectContents();
+    }
+
+    @MapFeature.Require(absent = SUPPORTS_PUT)
+    public void testDrainTo_unsupported() {
+        CharShortMapBulkTransfer bulk = bulk();
+        if (bulk == null)
+            return;
+        int size = getMap().size();
+        try {
+            bulk.drainTo(new char[size], new short[size], 0);
+            fail("drainTo() should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+        expectUnchanged();
+    }
+}
@@ -0,0 +1,244 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.koloboke.collect.testing.testers;
+
+import com.google.common.collect.testing.features.CollectionFeature;
+import com.google.common.collect.testing.features.CollectionSize;
+import com.koloboke.collect.CharBulkTransfer;
+import com.koloboke.collect.testing.AbstractCharCollectionTester;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.collect.testing.features.CollectionFeature.SUPPORTS_ADD;
+import static com.google.common.collect.testing.features.CollectionFeature.SUPPORTS_REMOVE;
+import static com.google.common.collect.testing.features.CollectionSize.ZERO;
+
+
+/**
+ * Tests {@link CharBulkTransfer} operations. Collections, which don't implement
+ * {@code CharBulkTransfer}, e. g. generated by Koloboke Compile, pass these tests trivially.
+ */
+public class CharCollectionBulkTransferTester extends AbstractCharCollectionTester {
+
+    private static final int OFFSET = 3;
+
+    private static final int ELEM_BYTES = Character.SIZE / 8;
+
+    private CharBulkTransfer bulk() {
+        return c() instanceof CharBulkTransfer ? (CharBulkTransfer) c() : null;
+    }
+
+    private List<Character> iterationOrder() {
+        List<Character> iteratorElements = new ArrayList<>();
+        for (Character element : c()) { // uses iterator()
+            iteratorElements.add(element);
+        }
+        return iteratorElements;
+    }
+
+    private static List<Character> decode(ByteBuffer buffer) {
+        List<Character> elements = new ArrayList<>();
+        while (buffer.remaining() >= ELEM_BYTES) {
+            elements.add(buffer./* if !(byte elem) */getChar/* elif byte elem //get// endif */());
+        }
+        return elements;
+    }
+
+    private static ByteBuffer encode(ByteOrder order, char... elements) {
+        ByteBuffer buffer = ByteBuffer.allocate(elements.length * ELEM_BYTES).order(order);
+        for (char e : elements) {
+            buffer./* if !(byte elem) */putChar/* elif byte elem //put// endif */(e);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /* with No|Some removed */
+    /* if Some removed */
+    @CollectionSize.Require(absent = ZERO)
+    @CollectionFeature.Require(SUPPORTS_REMOVE)
+    /* endif */
+    public void testToBuffer_noRemoved() {
+        /* if Some removed */remove();/* endif */
+        CharBulkTransfer bulk = bulk();
+        if (bulk == null)
+            return;
+        CharBuffer buffer = CharBuffer.allocate(OFFSET + c().size());
+        buffer.position(OFFSET);
+        assertSame(buffer, bulk.toBuffer(buffer));
+        assertEquals(0, buffer.remaining());
+        buffer.position(OFFSET);
+        List<Character> bufferElements = new ArrayList<>();
+        while (buffer.hasRemaining()) {
+            bufferElements.add(buffer.get());
+        }
+        assertEquals("toBuffer() order is different from iteration order",
+                iterationOrder(), bufferElements);
+    }
+    /* endwith */
+
+    @CollectionSize.Require(absent = ZERO)
+    public void testToBuffer_overflow() {
+        CharBulkTransfer bulk = bulk();
+        if (bulk == null)
+            return;
+        CharBuffer buffer = CharBuffer.allocate(c().size() - 1);
+        try {
+            bulk.toBuffer(buffer);
+            fail("toBuffer() into a too small buffer should throw BufferOverflowException");
+        } catch (BufferOverflowException expected) {
+            // expected
+        }
+        assertEquals("toBuffer() shouldn't write anything, if the buffer is too small",
+                0, buffer.position());
+    }
+
+    /* with No|Some removed */
+    /* if Some removed */
+    @CollectionSize.Require(absent = ZERO)
+    @CollectionFeature.Require(SUPPORTS_REMOVE)
+    /* endif */
+    public void testWriteToBuffer_noRemoved() {
+        /* if Some removed */remove();/* endif */
+        CharBulkTransfer bulk = bulk();
+        if (bulk == null)
+            return;
+        for (ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            ByteBuffer buffer = ByteBuffer.allocate(OFFSET + c().size() * ELEM_BYTES).order(order);
+            buffer.position(OFFSET);
+            bulk.writeTo(buffer);
+            assertEquals(0, buffer.remaining());
+            buffer.position(OFFSET);
+            assertEquals("writeTo() order is different from iteration order",
+                    iterationOrder(), decode(buffer));
+        }
+        expectContents(noRemoved(getOrderedElements()));
+    }
+
+    /* if Some removed */
+    @CollectionSize.Require(absent = ZERO)
+    @CollectionFeature.Require(SUPPORTS_REMOVE)
+    /* endif */
+    public void testWriteToChannel_noRemoved() throws IOException {
+        /* if Some removed */remove();/* endif */
+        CharBulkTransfer bulk = bulk();
+        if (bulk == null)
+            return;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bulk.writeTo(Channels.newChannel(out));
+        ByteBuffer written = ByteBuffer.wrap(out.toByteArray());
+        assertEquals(c().size() * ELEM_BYTES, written.remaining());
+        assertEquals("writeTo() order is different from iteration order",
+                iterationOrder(), decode(written));
+    }
+    /* endwith */
+
+    @CollectionSize.Require(absent = ZERO)
+    public void testWriteToBuffer_overflow() {
+        CharBulkTransfer bulk = bulk();
+        if (bulk == null)
+            return;
+        ByteBuffer buffer = ByteBuffer.allocate(c().size() * ELEM_BYTES - 1);
+        try {
+            bulk.writeTo(buffer);
+            fail("writeTo() into a too small buffer should throw BufferOverflowException");
+        } catch (BufferOverflowException expected) {
+            // expected
+        }
+        assertEquals("writeTo() shouldn't write anything, if the buffer is too small",
+                0, buffer.position());
+    }
+
+    @CollectionFeature.Require(SUPPORTS_ADD)
+    public void testReadFromBuffer_supported() {
+        CharBulkTransfer bulk = bulk();
+        if (bulk == null)
+            return;
+        // not the default order, to check that readFrom() respects the buffer's order
+        ByteBuffer buffer = encode(ByteOrder.LITTLE_ENDIAN, samples.e3(), samples.e4());
+        assertTrue("readFrom() of absent elements should return true", bulk.readFrom(buffer));
+        assertFalse(buffer.hasRemaining());
+        expectAdded(samples.e3(), samples.e4());
+    }
+
+    @CollectionFeature.Require(absent = SUPPORTS_ADD)
+    public void testReadFromBuffer_unsupported() {
+        CharBulkTransfer bulk = bulk();
+        if (bulk == null)
+            return;
+        try {
+            bulk.readFrom(encode(ByteOrder.BIG_ENDIAN, samples.e3()));
+            fail("readFrom() should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+        expectUnchanged();
+    }
+
+    @CollectionFeature.Require(SUPPORTS_ADD)
+    public void testReadFromChannel_supported() throws IOException {
+        CharBulkTransfer bulk = bulk();
+        if (bulk == null)
+            return;
+        ByteBuffer bytes = encode(ByteOrder.BIG_ENDIAN, samples.e3(), samples.e4());
+        assertTrue("readFrom() of absent elements should return true",
+                bulk.readFrom(Channels.newChannel(new ByteArrayInputStream(bytes.array()))));
+        expectAdded(samples.e3(), samples.e4());
+    }
+
+    /* if !(byte elem) */
+    @CollectionFeature.Require(SUPPORTS_ADD)
+    public void testReadFromBuffer_incompleteElement() {
+        CharBulkTransfer bulk = bulk();
+        if (bulk == null)
+            return;
+        ByteBuffer buffer = ByteBuffer.allocate(ELEM_BYTES + 1);
+        buffer.putChar(samples.e3()).put((byte) 0).flip();
+        assertTrue(bulk.readFrom(buffer));
+        assertEquals("readFrom() should leave the bytes of an incomplete element in the buffer",
+                1, buffer.remaining());
+        expectAdded(samples.e3());
+    }
+
+    @CollectionFeature.Require(SUPPORTS_ADD)
+    public void testReadFromChannel_truncated() throws IOException {
+        CharBulkTransfer bulk = bulk();
+        if (bulk == null)
+            return;
+        byte[] bytes = new byte[ELEM_BYTES - 1];
+        try {
+            bulk.readFrom(Channels.newChannel(new ByteArrayInputStream(bytes)));
+            fail("readFrom() of a channel, ending in the middle of an element, " +
+                    "should throw EOFException");
+        } catch (EOFException expected) {
+            // expected
+        }
+        expectUnchanged();
+    }
+    /* endif */
+}